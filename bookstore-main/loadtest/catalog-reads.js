@@ -0,0 +1,36 @@
+// Mixed read load against the catalog endpoints, driven at a fixed arrival rate so that
+// platform and virtual thread runs see the same offered load.
+//
+//   k6 run -e RATE=2000 -e ISBN=9780306406157 loadtest/catalog-reads.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ISBN = __ENV.ISBN || '9780306406157';
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            rate: Number(__ENV.RATE || 1000),
+            timeUnit: '1s',
+            duration: __ENV.DURATION || '60s',
+            preAllocatedVUs: 200,
+            maxVUs: 5000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const pick = Math.random();
+    let res;
+    if (pick < 0.5) {
+        res = http.get(`${BASE_URL}/api/v1/books/${ISBN}`, { tags: { name: 'by-isbn' } });
+    } else if (pick < 0.8) {
+        res = http.get(`${BASE_URL}/api/v1/books/?limit=20`, { tags: { name: 'catalog' } });
+    } else {
+        res = http.get(`${BASE_URL}/api/v1/books/search?title=the`, { tags: { name: 'search' } });
+    }
+    check(res, { 'not 5xx': r => r.status < 500 });
+}
@@ -0,0 +1,50 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Author;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory index from {@link AuthorKey} to an already persisted author, so that
+ * resolving a known author on the write path does not need a database round trip.
+ */
+@Component
+public class AuthorCache {
+
+    private final Cache<AuthorKey, Author> authors;
+
+    public AuthorCache(BookstoreProperties properties) {
+        this.authors = Caffeine.newBuilder()
+                .maximumSize(properties.getAuthors().getCacheMaxSize())
+                .build();
+    }
+
+    public Author get(AuthorKey key) {
+        return authors.getIfPresent(key);
+    }
+
+    public void put(AuthorKey key, Author author) {
+        authors.put(key, author);
+    }
+
+    /**
+     * Registers an author created in the current transaction. The entry only becomes
+     * visible once the row is committed, so a rollback never leaves a dangling id behind.
+     */
+    public void putAfterCommit(AuthorKey key, Author author) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(key, author);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(key, author);
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.helper.AuthorServiceHelper;
+
+import java.time.LocalDate;
+
+/**
+ * Identity of an author for de-duplication purposes: normalized name plus birthday.
+ */
+public record AuthorKey(String nameKey, LocalDate birthday) {
+
+    public static AuthorKey of(String name, LocalDate birthday) {
+        return new AuthorKey(AuthorServiceHelper.normalizeName(name), birthday);
+    }
+}
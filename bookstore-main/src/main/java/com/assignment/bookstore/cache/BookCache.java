@@ -0,0 +1,137 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.model.BookView;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Size bounded read-through cache of book views by ISBN. Caffeine evicts with W-TinyLFU, so
+ * frequently requested ISBNs survive scans of rarely requested ones. Unknown ISBNs are
+ * cached as empty entries with their own, shorter expiry.
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics tagged {@code cache=books.isbn}.
+ * <p>
+ * Entries are futures so that a miss is loaded on the caller's own thread, outside of the map's
+ * bin lock. A synchronous Caffeine loader runs inside {@code ConcurrentHashMap.compute}, whose
+ * monitor would pin a virtual thread to its carrier for the whole database round trip.
+ * Concurrent lookups of the same ISBN still share a single load.
+ */
+@Component
+public class BookCache implements MeterBinder {
+
+    private final AsyncCache<Long, Optional<BookView>> books;
+
+    public BookCache(BookstoreProperties properties) {
+        BookstoreProperties.BookCache settings = properties.getBookCache();
+        this.books = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxSize())
+                .expireAfter(new FoundOrMissingExpiry(settings.getTtl(), settings.getNegativeTtl()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached lookup for the ISBN, calling the loader once on a miss.
+     */
+    public Optional<BookView> get(long isbn, Function<Long, Optional<BookView>> loader) {
+        CompletableFuture<Optional<BookView>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<BookView>> entry = books.get(isbn, (key, executor) -> load);
+        if (entry == load) {
+            try {
+                load.complete(loader.apply(isbn));
+            } catch (RuntimeException e) {
+                // failed futures are dropped from the cache, so the next lookup retries
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Returns the cached lookups for all ISBNs. Misses are handed to the loader together, which
+     * must answer every ISBN it is given; ISBNs another caller is already loading are waited for.
+     */
+    public Map<Long, Optional<BookView>> getAll(Collection<Long> isbns,
+                                                Function<Set<Long>, Map<Long, Optional<BookView>>> loader) {
+        CompletableFuture<Map<Long, Optional<BookView>>> load = new CompletableFuture<>();
+        Set<Long> misses = new HashSet<>();
+        CompletableFuture<Map<Long, Optional<BookView>>> entries = books.getAll(isbns, (keys, executor) -> {
+            misses.addAll(keys);
+            return load;
+        });
+        if (!misses.isEmpty()) {
+            try {
+                load.complete(loader.apply(misses));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entries.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction completes, so a reader
+     * that loaded the old row before the commit cannot leave it behind in the cache.
+     */
+    public void invalidate(long isbn) {
+        books.synchronous().invalidate(isbn);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    books.synchronous().invalidate(isbn);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, books, "books.isbn");
+    }
+
+    private record FoundOrMissingExpiry(Duration ttl, Duration negativeTtl) implements Expiry<Long, Optional<BookView>> {
+
+        @Override
+        public long expireAfterCreate(Long isbn, Optional<BookView> book, long currentTime) {
+            return (book.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long isbn, Optional<BookView> book, long currentTime, long currentDuration) {
+            return expireAfterCreate(isbn, book, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long isbn, Optional<BookView> book, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
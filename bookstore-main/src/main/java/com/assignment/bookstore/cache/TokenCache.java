@@ -0,0 +1,75 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.service.TokenService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Verifies bearer tokens locally against the signing key and remembers the verified result
+ * until the token expires, so a client reusing its token skips parsing and signature checks.
+ * Tokens that fail verification are never cached.
+ * Hit, miss and eviction counters are published as {@code cache.*} metrics tagged {@code cache=auth.tokens}.
+ */
+@Component
+public class TokenCache implements JwtDecoder, MeterBinder {
+
+    private final JwtDecoder verifier;
+
+    private final Cache<String, Jwt> tokens;
+
+    public TokenCache(SecretKey tokenSigningKey, BookstoreProperties properties) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(TokenService.ISSUER));
+        this.verifier = decoder;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(properties.getAuth().getTokenCacheMaxSize())
+                .expireAfter(new UntilExpiry())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return tokens.get(token, verifier::decode);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tokens, "auth.tokens");
+    }
+
+    private static final class UntilExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String token, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            return expiresAt == null ? 0 : Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
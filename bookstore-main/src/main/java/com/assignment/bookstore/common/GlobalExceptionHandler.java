@@ -1,51 +1,83 @@
 package com.assignment.bookstore.common;
 
+import com.assignment.bookstore.exception.AuthorNotFoundException;
 import com.assignment.bookstore.exception.BookNotFoundException;
 import com.assignment.bookstore.exception.EntityExistsException;
 import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.exception.PreconditionFailedException;
 import com.assignment.bookstore.exception.UnauthorizedException;
+import com.assignment.bookstore.model.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(BookNotFoundException.class)
-    public ResponseEntity<Object> handleBookNotFoundException(BookNotFoundException ex) {
-        return createErrorResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleBookNotFoundException(BookNotFoundException ex) {
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler(AuthorNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleAuthorNotFoundException(AuthorNotFoundException ex) {
+        return createErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     @ExceptionHandler(EntityExistsException.class)
-    public ResponseEntity<Object> handleEntityExistsException(EntityExistsException ex) {
-        return createErrorResponse(HttpStatus.CONFLICT, "Conflict", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleEntityExistsException(EntityExistsException ex) {
+        return createErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return createErrorResponse(HttpStatus.CONFLICT, "The book was changed by another request, reload it and retry");
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException ex) {
+        return createErrorResponse(HttpStatus.PRECONDITION_FAILED, ex.getMessage());
     }
 
     @ExceptionHandler(UnauthorizedException.class)
-    public ResponseEntity<Object> handleUnauthorizedException(UnauthorizedException ex) {
-        return createErrorResponse(HttpStatus.UNAUTHORIZED, "Unauthorized", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleUnauthorizedException(UnauthorizedException ex) {
+        return createErrorResponse(HttpStatus.UNAUTHORIZED, ex.getMessage());
     }
 
     @ExceptionHandler(InvalidInputException.class)
-    public ResponseEntity<Object> handleInvalidInputException(InvalidInputException ex) {
-        return createErrorResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    public ResponseEntity<ErrorResponse> handleInvalidInputException(InvalidInputException ex) {
+        return createErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * A transaction could not get a connection within the pool's acquisition timeout.
+     * With virtual threads the pool is the concurrency limit, so shed load instead of failing with 500.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        return createErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "The service is busy, please retry shortly");
+    }
+
+    /**
+     * Denials from method security are rethrown to Spring Security's exception translation, which
+     * answers 401 with a challenge for anonymous callers and 403 for authenticated ones.
+     */
+    @ExceptionHandler({AccessDeniedException.class, AuthenticationException.class})
+    public void rethrowSecurityException(RuntimeException ex) {
+        throw ex;
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Object> handleGeneralException(Exception ex) {
-        return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred");
+    public ResponseEntity<ErrorResponse> handleGeneralException(Exception ex) {
+        return createErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
     }
 
-    private ResponseEntity<Object> createErrorResponse(HttpStatus status, String error, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", new Date());
-        body.put("status", status.value());
-        body.put("error", error);
-        body.put("message", message);
-        return new ResponseEntity<>(body, status);
+    private ResponseEntity<ErrorResponse> createErrorResponse(HttpStatus status, String message) {
+        return new ResponseEntity<>(ErrorResponse.of(status, message), status);
     }
 }
@@ -0,0 +1,52 @@
+package com.assignment.bookstore.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps one in every {@code rate} events at or below {@code level}
+ * from {@code logger} and its children. Louder events always pass. Turbo filters run before
+ * the event is built, so a dropped event costs no more than a counter increment.
+ */
+@Getter
+@Setter
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String logger;
+
+    private Level level = Level.INFO;
+
+    private int rate = 100;
+
+    private final AtomicLong seen = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (logger == null || rate < 1) {
+            addError("SamplingTurboFilter needs a logger and a rate of at least 1");
+            return;
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger candidate, Level eventLevel, String format, Object[] params,
+                              Throwable t) {
+        // a null format is an is-enabled check rather than an event, so it must not use up a sample
+        if (!isStarted() || format == null || eventLevel.toInt() > level.toInt() || !appliesTo(candidate.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return seen.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean appliesTo(String name) {
+        return name.startsWith(logger) && (name.length() == logger.length() || name.charAt(logger.length()) == '.');
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Async} methods and the auto-configured task scheduler, which retries failed
+ * index rebuilds. Both use virtual threads when {@code spring.threads.virtual.enabled} is set.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
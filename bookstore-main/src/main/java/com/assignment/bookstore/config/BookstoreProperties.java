@@ -0,0 +1,198 @@
+package com.assignment.bookstore.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Application specific settings bound from the {@code bookstore.*} namespace.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "bookstore")
+public class BookstoreProperties {
+
+    private final Catalog catalog = new Catalog();
+
+    private final Authors authors = new Authors();
+
+    private final BookCache bookCache = new BookCache();
+
+    private final BulkImport bulkImport = new BulkImport();
+
+    private final Search search = new Search();
+
+    private final Facets facets = new Facets();
+
+    private final Auth auth = new Auth();
+
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    @Getter
+    @Setter
+    public static class Catalog {
+
+        /**
+         * Page size used when the client does not ask for a specific one.
+         */
+        private int defaultPageSize = 20;
+
+        /**
+         * Upper bound for the page size a client may request.
+         */
+        private int maxPageSize = 100;
+
+        /**
+         * Upper bound for the number of ISBNs in one batch lookup.
+         */
+        private int maxLookupSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Authors {
+
+        /**
+         * Maximum number of resolved authors kept in the in-memory name index.
+         */
+        private long cacheMaxSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class BookCache {
+
+        /**
+         * Maximum number of ISBN lookups kept in memory.
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * How long a found book stays cached after it was loaded.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * How long an unknown ISBN is remembered as missing.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class BulkImport {
+
+        /**
+         * Number of records written and committed per transaction.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Maximum number of row errors listed in an import report.
+         */
+        private int maxReportedErrors = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Search {
+
+        /**
+         * Where title and author searches are answered from.
+         */
+        private SearchBackend backend = SearchBackend.DATABASE;
+
+        /**
+         * Maximum number of ranked hits returned by the in-memory index.
+         */
+        private int maxResults = 1000;
+
+        /**
+         * Whether a search without matches is answered with 404 rather than an empty list.
+         */
+        private boolean notFoundWhenEmpty = true;
+
+        /**
+         * How long to wait before retrying a failed rebuild of the in-memory index.
+         */
+        private Duration rebuildRetryDelay = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Facets {
+
+        /**
+         * Upper bounds of the price ranges, ascending; a last range covers everything above.
+         */
+        private List<Double> priceBreaks = List.of(10.0, 20.0, 50.0, 100.0);
+
+        /**
+         * Number of publication years grouped into one bucket, 10 for decades.
+         */
+        private int yearBucketSize = 10;
+
+        /**
+         * How long to wait before retrying a failed count of the catalog facets.
+         */
+        private Duration rebuildRetryDelay = Duration.ofSeconds(30);
+    }
+
+    @Getter
+    @Setter
+    public static class Auth {
+
+        /**
+         * HMAC-SHA256 key for signing access tokens, at least 32 bytes. When blank a random
+         * key is generated at startup, so tokens do not survive a restart.
+         */
+        private String tokenSecret;
+
+        /**
+         * How long an issued access token is valid.
+         */
+        private Duration tokenTtl = Duration.ofMinutes(15);
+
+        /**
+         * Maximum number of verified tokens kept in memory.
+         */
+        private long tokenCacheMaxSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class SecondLevelCache {
+
+        /**
+         * Whether Hibernate caches books, authors and search results between sessions.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of entries in each entity and collection region.
+         */
+        private long entityMaxSize = 10_000;
+
+        /**
+         * How long an entity or collection entry stays cached after it was written.
+         */
+        private Duration entityTtl = Duration.ofMinutes(30);
+
+        /**
+         * Maximum number of cached query results.
+         */
+        private long queryMaxSize = 1_000;
+
+        /**
+         * How long a cached query result is kept; writes to its tables invalidate it sooner.
+         */
+        private Duration queryTtl = Duration.ofMinutes(5);
+    }
+
+    public enum SearchBackend {
+        DATABASE, INDEX
+    }
+}
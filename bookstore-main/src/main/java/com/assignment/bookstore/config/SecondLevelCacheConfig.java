@@ -0,0 +1,77 @@
+package com.assignment.bookstore.config;
+
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level and query cache on Caffeine's JCache provider. Every region is
+ * created here with its size limit and expiry, and Hibernate refuses to start on a region
+ * that is missing rather than creating an unbounded one.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "bookstore.second-level-cache", name = "enabled", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    /**
+     * One manager per application context, so separate contexts never share cached rows.
+     */
+    @Bean
+    public CacheManager secondLevelCacheManager(BookstoreProperties properties) {
+        BookstoreProperties.SecondLevelCache settings = properties.getSecondLevelCache();
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("bookstore-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : new String[] {Book.CACHE_REGION, Book.AUTHORS_CACHE_REGION, Author.CACHE_REGION}) {
+            cacheManager.createCache(region, regionConfiguration(settings.getEntityMaxSize(), settings.getEntityTtl()));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(settings.getQueryMaxSize(), settings.getQueryTtl()));
+        // Query results are checked against these per-table write timestamps; an evicted
+        // timestamp would let a stale result pass, so this region is never bounded.
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(null, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(Long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores immutable disassembled state, so copying entries buys nothing.
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
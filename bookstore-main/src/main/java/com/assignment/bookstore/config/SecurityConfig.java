@@ -1,20 +1,39 @@
 package com.assignment.bookstore.config;
 
+import com.assignment.bookstore.cache.TokenCache;
+import com.assignment.bookstore.service.TokenService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
+@Slf4j
 public class SecurityConfig {
 
+    private static final String TOKEN_ALGORITHM = "HmacSHA256";
+
     @Bean
     public InMemoryUserDetailsManager userDetailsService() {
         UserDetails user = User.withDefaultPasswordEncoder()
@@ -25,8 +44,32 @@ public class SecurityConfig {
         return new InMemoryUserDetailsManager(user);
     }
 
+    /**
+     * Key that signs and verifies access tokens. Every instance behind a load balancer needs the same configured secret.
+     */
+    @Bean
+    public SecretKey tokenSigningKey(BookstoreProperties properties) throws NoSuchAlgorithmException {
+        String secret = properties.getAuth().getTokenSecret();
+        if (secret == null || secret.isBlank()) {
+            log.warn("bookstore.auth.token-secret is not set, access tokens are signed with a random key and expire on restart");
+            KeyGenerator generator = KeyGenerator.getInstance(TOKEN_ALGORITHM);
+            generator.init(256);
+            return generator.generateKey();
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            throw new IllegalStateException("bookstore.auth.token-secret must be at least 32 bytes long");
+        }
+        return new SecretKeySpec(key, TOKEN_ALGORITHM);
+    }
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(HttpSecurity http, TokenCache tokenCache) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
@@ -35,14 +78,35 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/swagger-ui.html").permitAll()
                         // API endpoints
+                        .requestMatchers(HttpMethod.POST, "/api/v1/auth/token").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/books/all").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/v1/books/**").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/v1/books/import/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/v1/books/**").permitAll()
                         .requestMatchers(HttpMethod.PUT, "/api/v1/books/**").permitAll()
-                        .requestMatchers(HttpMethod.DELETE, "/api/books/*").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/v1/authors/**").permitAll()
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1/books/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .httpBasic(httpBasic -> {});
+                // Basic runs the password encoder on every request; exchange it once at /api/v1/auth/token
+                .httpBasic(httpBasic -> {})
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt
+                                .decoder(tokenCache)
+                                .jwtAuthenticationConverter(tokenAuthenticationConverter())));
 
         return http.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Restores the authorities stored in the token's roles claim, which already carry the ROLE_ prefix.
+     */
+    private static JwtAuthenticationConverter tokenAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authorities = new JwtGrantedAuthoritiesConverter();
+        authorities.setAuthoritiesClaimName(TokenService.ROLES_CLAIM);
+        authorities.setAuthorityPrefix("");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authorities);
+        return converter;
+    }
+}
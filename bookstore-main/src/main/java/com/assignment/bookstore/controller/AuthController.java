@@ -0,0 +1,36 @@
+package com.assignment.bookstore.controller;
+
+import com.assignment.bookstore.model.TokenResponse;
+import com.assignment.bookstore.service.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@Slf4j
+@Tag(name = "Authentication", description = "APIs for obtaining access tokens")
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Operation(summary = "Issue an access token",
+            description = "Exchanges HTTP Basic credentials for a short-lived bearer token")
+    @ApiResponse(responseCode = "200", description = "Token issued")
+    @ApiResponse(responseCode = "401", description = "Missing or invalid credentials")
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(Authentication authentication) {
+        log.debug("Issuing access token for {}", authentication.getName());
+        return ResponseEntity.ok(tokenService.issueToken(authentication));
+    }
+}
@@ -0,0 +1,74 @@
+package com.assignment.bookstore.controller;
+
+import com.assignment.bookstore.helper.BookETags;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.service.AuthorService;
+import com.assignment.bookstore.service.BookService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/authors")
+@Slf4j
+@Tag(name = "Author Management", description = "APIs for browsing the authors in the bookstore and their books")
+public class AuthorController {
+
+    private final AuthorService authorService;
+    private final BookService bookService;
+
+    public AuthorController(AuthorService authorService, BookService bookService) {
+        this.authorService = authorService;
+        this.bookService = bookService;
+    }
+
+    @Operation(summary = "Get authors",
+            description = "Retrieves one page of authors ordered by id. Pass the returned cursor to fetch the next page.")
+    @ApiResponse(responseCode = "200", description = "Author page retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    @GetMapping
+    public ResponseEntity<CatalogPage<AuthorView>> getAuthors(
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of authors to return") @RequestParam(required = false) Integer limit) {
+        log.debug("Retrieving author page after cursor: {}", cursor);
+        return ResponseEntity.ok(authorService.findAuthorPage(cursor, limit));
+    }
+
+    @Operation(summary = "Find authors by name",
+            description = "Retrieves one page of the authors whose name starts with the given name, ignoring case and extra whitespace, ordered by name")
+    @ApiResponse(responseCode = "200", description = "Author page retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Blank name, invalid cursor or page size")
+    @GetMapping("/search")
+    public ResponseEntity<CatalogPage<AuthorView>> searchAuthors(
+            @Parameter(description = "Start of the author name") @RequestParam String name,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of authors to return") @RequestParam(required = false) Integer limit) {
+        log.debug("Searching authors with name prefix: {}", name);
+        return ResponseEntity.ok(authorService.findAuthorsByNamePrefix(name, cursor, limit));
+    }
+
+    @Operation(summary = "Get books by author",
+            description = "Retrieves one page of an author's books ordered by ISBN. Pass the returned cursor to fetch the next page.")
+    @ApiResponse(responseCode = "200", description = "Book page retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    @ApiResponse(responseCode = "404", description = "Author not found")
+    @GetMapping("/{authorId}/books")
+    public ResponseEntity<CatalogPage<BookView>> getBooksByAuthor(
+            @Parameter(description = "Id of the author") @PathVariable long authorId,
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of books to return") @RequestParam(required = false) Integer limit) {
+        log.debug("Retrieving books of author {} after cursor: {}", authorId, cursor);
+        CatalogPage<BookView> page = bookService.findBooksByAuthor(authorId, cursor, limit);
+        return ResponseEntity.ok().eTag(BookETags.of(page)).body(page);
+    }
+}
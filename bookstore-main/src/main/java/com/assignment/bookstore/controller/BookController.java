@@ -1,21 +1,39 @@
 package com.assignment.bookstore.controller;
 
-import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.helper.BookETags;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookLookup;
+import com.assignment.bookstore.model.BookSearchCriteria;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.FacetCount;
+import com.assignment.bookstore.model.ImportFormat;
+import com.assignment.bookstore.model.ImportReport;
+import com.assignment.bookstore.model.RangeCount;
+import com.assignment.bookstore.model.SearchPage;
+import com.assignment.bookstore.service.BookImportService;
 import com.assignment.bookstore.service.BookService;
+import com.assignment.bookstore.service.BookStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -26,9 +44,14 @@ import java.util.List;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookStreamService bookStreamService;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookStreamService bookStreamService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookStreamService = bookStreamService;
     }
 
     @Operation(summary = "Create a new book",
@@ -36,71 +59,217 @@ public class BookController {
     @ApiResponse(responseCode = "201", description = "Book successfully created")
     @ApiResponse(responseCode = "400", description = "Invalid input data")
     @PostMapping("/")
-    public ResponseEntity<Book> createBookCatalogEntry(@Valid @RequestBody BookDTO bookDTO) {
+    public ResponseEntity<BookView> createBookCatalogEntry(@Valid @RequestBody BookDTO bookDTO) {
         log.info("Creating new catalog entry for book: {}", bookDTO.getTitle());
-        Book addedBook = bookService.addBook(bookDTO);
-        log.info("Successfully created catalog entry with ISBN: {}", addedBook.getIsbn());
-        return ResponseEntity.status(HttpStatus.CREATED).body(addedBook);
+        BookView addedBook = bookService.addBook(bookDTO);
+        log.info("Successfully created catalog entry with ISBN: {}", addedBook.isbn());
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(BookETags.of(addedBook)).body(addedBook);
+    }
+
+    @Operation(summary = "Bulk import books from NDJSON",
+            description = "Streams one JSON book per line into the catalog in chunked transactions. Requires admin privileges.")
+    @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows")
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportReport> importBookCatalogNdjson(InputStream body) {
+        return importBookCatalog(body, ImportFormat.NDJSON);
+    }
+
+    @Operation(summary = "Bulk import books from CSV",
+            description = "Streams CSV rows (header: isbn,title,year,price,genre,authors) into the catalog in chunked transactions. Requires admin privileges.")
+    @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows")
+    @ApiResponse(responseCode = "400", description = "Invalid CSV header")
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<ImportReport> importBookCatalogCsv(InputStream body) {
+        return importBookCatalog(body, ImportFormat.CSV);
+    }
+
+    private ResponseEntity<ImportReport> importBookCatalog(InputStream body, ImportFormat format) {
+        log.info("Importing catalog entries from {} stream", format);
+        ImportReport report = bookImportService.importCatalog(new InputStreamReader(body, StandardCharsets.UTF_8), format);
+        log.info("Imported {} catalog entries, {} rejected", report.getImported(), report.getFailed());
+        return ResponseEntity.ok(report);
     }
 
     @Operation(summary = "Update book details",
-            description = "Updates an existing book's information and its authors")
+            description = "Updates an existing book's information and its authors. Send the book's ETag in If-Match to reject the update if the book changed in the meantime.")
     @ApiResponse(responseCode = "200", description = "Book successfully updated")
     @ApiResponse(responseCode = "404", description = "Book not found")
+    @ApiResponse(responseCode = "409", description = "Book was changed by a concurrent request")
+    @ApiResponse(responseCode = "412", description = "If-Match does not match the book's current ETag")
     @PutMapping("/{isbn}")
-    public ResponseEntity<Book> updateBookCatalogEntry(
+    public ResponseEntity<BookView> updateBookCatalogEntry(
             @Parameter(description = "ISBN of the book to update") @PathVariable String isbn,
+            @Parameter(description = "ETag the update is based on") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody BookUpdateDTO bookUpdateDTO) {
         log.info("Updating catalog entry for book with ISBN: {}", isbn);
-        Book updatedBook = bookService.updateBook(isbn, bookUpdateDTO);
+        BookView updatedBook = bookService.updateBook(isbn, bookUpdateDTO, ifMatch);
         log.info("Successfully updated catalog entry with ISBN: {}", isbn);
-        return ResponseEntity.ok(updatedBook);
+        return ResponseEntity.ok().eTag(BookETags.of(updatedBook)).body(updatedBook);
     }
 
     @Operation(summary = "Search books by criteria",
             description = "Search books by title and/or author name")
     @ApiResponse(responseCode = "200", description = "Search completed successfully")
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBookCatalog(
+    public ResponseEntity<List<BookView>> searchBookCatalog(
             @Parameter(description = "Book title to search for") @RequestParam(required = false) String title,
             @Parameter(description = "Author name to search for") @RequestParam(required = false) String author) {
         log.debug("Searching catalog with title: {} and author: {}", title, author);
-        List<Book> books = bookService.findBooks(title, author);
-        return ResponseEntity.ok(books);
+        List<BookView> books = bookService.findBooks(title, author);
+        return ResponseEntity.ok().eTag(BookETags.of(books)).body(books);
+    }
+
+    @Operation(summary = "Filter the book catalog",
+            description = "Combines any of the title, author, genre, publication year and price filters and returns one sorted page. "
+                    + "Ranges include 'from' and exclude 'to'. hasNext tells whether another page exists; the total is only counted when includeTotal is set.")
+    @ApiResponse(responseCode = "200", description = "Page of matching books, possibly empty")
+    @ApiResponse(responseCode = "400", description = "Invalid range, sort, page or page size")
+    @GetMapping("/filter")
+    public ResponseEntity<SearchPage<BookView>> filterBookCatalog(
+            @Parameter(description = "Text the title contains") @RequestParam(required = false) String title,
+            @Parameter(description = "Text an author's name contains") @RequestParam(required = false) String author,
+            @Parameter(description = "Exact genre") @RequestParam(required = false) String genre,
+            @Parameter(description = "Earliest publication year") @RequestParam(required = false) Integer yearFrom,
+            @Parameter(description = "Publication year to stop before") @RequestParam(required = false) Integer yearTo,
+            @Parameter(description = "Lowest price") @RequestParam(required = false) Double priceFrom,
+            @Parameter(description = "Price to stop below") @RequestParam(required = false) Double priceTo,
+            @Parameter(description = "One of isbn, title, year, price, genre, optionally followed by ,asc or ,desc") @RequestParam(required = false) String sort,
+            @Parameter(description = "Zero-based page number") @RequestParam(required = false) Integer page,
+            @Parameter(description = "Maximum number of books to return") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Whether to count all matching books") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        BookSearchCriteria criteria = new BookSearchCriteria(title, author, genre, yearFrom, yearTo, priceFrom, priceTo);
+        log.debug("Filtering catalog by {} sorted by {}, page {}", criteria, sort, page);
+        SearchPage<BookView> result = bookService.searchCatalog(criteria, sort, page, limit, includeTotal);
+        return ResponseEntity.ok().eTag(BookETags.of(result)).body(result);
+    }
+
+    @Operation(summary = "Stream search results",
+            description = "Streams the books matching a title and/or author search as NDJSON, one book per line")
+    @ApiResponse(responseCode = "200", description = "Search results are streamed")
+    @ApiResponse(responseCode = "404", description = "No books match the search")
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookCatalogSearch(
+            @Parameter(description = "Book title to search for") @RequestParam(required = false) String title,
+            @Parameter(description = "Author name to search for") @RequestParam(required = false) String author) {
+        log.debug("Streaming catalog search with title: {} and author: {}", title, author);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookStreamService.streamSearch(title, author));
     }
 
     @Operation(summary = "Get book catalog",
-            description = "Retrieves the complete book catalog")
-    @ApiResponse(responseCode = "200", description = "Catalog retrieved successfully")
+            description = "Retrieves one page of the book catalog ordered by ISBN. Pass the returned cursor to fetch the next page.")
+    @ApiResponse(responseCode = "200", description = "Catalog page retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
     @GetMapping("/")
-    public ResponseEntity<List<Book>> getBookCatalog() {
+    public ResponseEntity<CatalogPage<BookView>> getBookCatalog(
+            @Parameter(description = "Continuation token from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of books to return") @RequestParam(required = false) Integer limit) {
+        log.debug("Retrieving book catalog page after cursor: {}", cursor);
+        CatalogPage<BookView> page = bookService.findCatalogPage(cursor, limit);
+        return ResponseEntity.ok().eTag(BookETags.of(page)).body(page);
+    }
+
+    @Operation(summary = "Stream book catalog",
+            description = "Streams the catalog ordered by ISBN as NDJSON, one book per line, optionally starting after a cursor")
+    @ApiResponse(responseCode = "200", description = "Catalog is streamed")
+    @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookCatalog(
+            @Parameter(description = "Continuation token to start after") @RequestParam(required = false) String cursor) {
+        log.debug("Streaming book catalog after cursor: {}", cursor);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookStreamService.streamCatalog(cursor));
+    }
+
+    @Operation(summary = "Get catalog facets",
+            description = "Counts the catalog's books by genre, price range and publication-year bucket")
+    @ApiResponse(responseCode = "200", description = "Facets retrieved successfully")
+    @GetMapping("/facets")
+    public ResponseEntity<CatalogFacets> getCatalogFacets() {
+        log.debug("Retrieving catalog facets");
+        return ResponseEntity.ok(bookService.findFacets());
+    }
+
+    @Operation(summary = "Get genre facet",
+            description = "Counts the catalog's books per genre, largest genre first")
+    @ApiResponse(responseCode = "200", description = "Genre counts retrieved successfully")
+    @GetMapping("/facets/genres")
+    public ResponseEntity<List<FacetCount>> getGenreFacet() {
+        log.debug("Retrieving genre facet");
+        return ResponseEntity.ok(bookService.findFacets().genres());
+    }
+
+    @Operation(summary = "Get price facet",
+            description = "Counts the catalog's books per configured price range")
+    @ApiResponse(responseCode = "200", description = "Price range counts retrieved successfully")
+    @GetMapping("/facets/prices")
+    public ResponseEntity<List<RangeCount>> getPriceFacet() {
+        log.debug("Retrieving price facet");
+        return ResponseEntity.ok(bookService.findFacets().prices());
+    }
+
+    @Operation(summary = "Get publication year facet",
+            description = "Counts the catalog's books per publication-year bucket")
+    @ApiResponse(responseCode = "200", description = "Year bucket counts retrieved successfully")
+    @GetMapping("/facets/years")
+    public ResponseEntity<List<RangeCount>> getYearFacet() {
+        log.debug("Retrieving publication year facet");
+        return ResponseEntity.ok(bookService.findFacets().years());
+    }
+
+    @Operation(summary = "Get complete book catalog",
+            description = "Retrieves the complete book catalog in a single response. Requires admin privileges.")
+    @ApiResponse(responseCode = "200", description = "Catalog retrieved successfully")
+    @GetMapping("/all")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<List<BookView>> getFullBookCatalog() {
         log.debug("Retrieving complete book catalog");
-        List<Book> books = bookService.findAllBooks();
-        return ResponseEntity.ok(books);
+        List<BookView> books = bookService.findAllBooks();
+        return ResponseEntity.ok().eTag(BookETags.of(books)).body(books);
+    }
+
+    @Operation(summary = "Get several books by ISBN",
+            description = "Looks up to bookstore.catalog.max-lookup-size books in one request. Books that exist are returned in request order; ISBNs without a book are listed under missing.")
+    @ApiResponse(responseCode = "200", description = "Lookup completed, possibly with missing ISBNs")
+    @ApiResponse(responseCode = "400", description = "Invalid ISBN or too many ISBNs")
+    @GetMapping("/lookup")
+    public ResponseEntity<BookLookup> lookupBooks(
+            @Parameter(description = "Comma separated ISBNs") @RequestParam List<String> isbns) {
+        log.debug("Looking up {} books by ISBN", isbns.size());
+        BookLookup lookup = bookService.findBooksByIsbns(isbns);
+        return ResponseEntity.ok().eTag(BookETags.of(lookup.found())).body(lookup);
     }
 
     @Operation(summary = "Get book details by ISBN",
-            description = "Retrieves detailed information about a specific book")
+            description = "Retrieves detailed information about a specific book. Answers If-None-Match with 304 when the book is unchanged.")
     @ApiResponse(responseCode = "200", description = "Book details found")
+    @ApiResponse(responseCode = "304", description = "Book unchanged since the given ETag")
     @ApiResponse(responseCode = "404", description = "Book not found")
     @GetMapping("/{isbn}")
-    public ResponseEntity<Book> getBookDetails(
+    public ResponseEntity<BookView> getBookDetails(
             @Parameter(description = "ISBN of the book") @PathVariable String isbn) {
         log.debug("Retrieving book details for ISBN: {}", isbn);
-        Book book = bookService.findBookByIsbn(isbn);
-        return ResponseEntity.ok(book);
+        BookView book = bookService.findBookByIsbn(isbn);
+        // the ETag is checked against If-None-Match before the body is serialized
+        return ResponseEntity.ok().eTag(BookETags.of(book)).body(book);
     }
 
     @Operation(summary = "Remove book from catalog",
-            description = "Permanently removes a book from the catalog. Requires admin privileges.")
+            description = "Permanently removes a book from the catalog. Requires admin privileges. Send the book's ETag in If-Match to reject the removal if the book changed in the meantime.")
     @ApiResponse(responseCode = "204", description = "Book successfully removed")
     @ApiResponse(responseCode = "404", description = "Book not found")
+    @ApiResponse(responseCode = "412", description = "If-Match does not match the book's current ETag")
     @DeleteMapping("/{isbn}")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<Void> removeBookFromCatalog(
-            @Parameter(description = "ISBN of the book to remove") @PathVariable String isbn) {
+            @Parameter(description = "ISBN of the book to remove") @PathVariable String isbn,
+            @Parameter(description = "ETag the removal is based on") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Removing book from catalog with ISBN: {}", isbn);
-        bookService.deleteBook(isbn);
+        bookService.deleteBook(isbn, ifMatch);
         log.info("Successfully removed book with ISBN: {}", isbn);
         return ResponseEntity.noContent().build();
     }
@@ -3,6 +3,8 @@ package com.assignment.bookstore.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.boot.autoconfigure.batch.BatchTransactionManager;
 
 import java.time.LocalDate;
@@ -10,13 +12,26 @@ import java.time.LocalDate;
 @Getter
 @Setter
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", uniqueConstraints = @UniqueConstraint(
+        name = "uk_authors_name_key_birthday", columnNames = {"name_key", "birthday"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Author.CACHE_REGION)
 public class Author {
 
+    public static final String CACHE_REGION = "authors";
+
+    // Pooled sequence ids keep JDBC insert batching available; IDENTITY disables it.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+    @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private LocalDate birthday;
+
+    /**
+     * Normalized form of {@link #name} used to recognise the same author across requests.
+     */
+    @Column(name = "name_key")
+    private String nameKey;
 }
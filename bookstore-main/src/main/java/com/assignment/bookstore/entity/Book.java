@@ -3,9 +3,15 @@
  */
 package com.assignment.bookstore.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.domain.Persistable;
 
 import java.util.Set;
 
@@ -13,21 +19,69 @@ import java.util.Set;
 @Setter
 @Entity
 @Table(name = "books")
-public class Book {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@NamedEntityGraph(name = Book.WITH_AUTHORS, attributeNodes = @NamedAttributeNode("authors"))
+public class Book implements Persistable<Long> {
 
+    public static final String WITH_AUTHORS = "Book.withAuthors";
+
+    public static final String CACHE_REGION = "books";
+
+    public static final String AUTHORS_CACHE_REGION = "books.authors";
+
+    /**
+     * Canonical ISBN-13 digits, see {@link com.assignment.bookstore.helper.IsbnCodec}.
+     */
     @Id
-    private String isbn;
+    private Long isbn;
 
     private String title;
     private Integer year;
     private Double price;
     private String genre;
 
-    @ManyToMany(cascade = CascadeType.ALL)
+    /**
+     * Incremented by every update; guards against lost updates and is exposed as the ETag.
+     */
+    @Version
+    private Long version;
+
+    // Authors are shared between books and resolved by AuthorService, so nothing cascades from here.
+    @ManyToMany
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.AUTHORS_CACHE_REGION)
     @JoinTable(
         name = "book_authors",
         joinColumns = @JoinColumn(name = "book_isbn"),
         inverseJoinColumns = @JoinColumn(name = "author_id")
     )
     private Set<Author> authors;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    @JsonIgnore
+    public Long getId() {
+        return isbn;
+    }
+
+    /**
+     * ISBNs are assigned by the client, so Spring Data cannot tell new books from existing
+     * ones by their id. Tracking it here lets new books be persisted instead of merged.
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
 }
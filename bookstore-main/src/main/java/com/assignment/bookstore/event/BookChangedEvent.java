@@ -0,0 +1,20 @@
+package com.assignment.bookstore.event;
+
+/**
+ * Published whenever a book is created, updated or deleted. {@code before} is {@code null}
+ * for a new book and {@code after} is {@code null} for a deleted one.
+ */
+public record BookChangedEvent(Long isbn, BookSnapshot before, BookSnapshot after) {
+
+    public static BookChangedEvent created(BookSnapshot book) {
+        return new BookChangedEvent(book.isbn(), null, book);
+    }
+
+    public static BookChangedEvent updated(BookSnapshot before, BookSnapshot after) {
+        return new BookChangedEvent(after.isbn(), before, after);
+    }
+
+    public static BookChangedEvent deleted(BookSnapshot book) {
+        return new BookChangedEvent(book.isbn(), book, null);
+    }
+}
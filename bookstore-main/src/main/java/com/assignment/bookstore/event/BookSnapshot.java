@@ -0,0 +1,19 @@
+package com.assignment.bookstore.event;
+
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the searchable and aggregatable state of a book, taken inside the
+ * transaction that changed it so listeners never touch a managed entity.
+ */
+public record BookSnapshot(Long isbn, String title, String genre, Integer year, Double price, List<String> authorNames) {
+
+    public static BookSnapshot of(Book book) {
+        List<String> authorNames = book.getAuthors() == null ? List.of()
+                : book.getAuthors().stream().map(Author::getName).toList();
+        return new BookSnapshot(book.getIsbn(), book.getTitle(), book.getGenre(), book.getYear(), book.getPrice(), authorNames);
+    }
+}
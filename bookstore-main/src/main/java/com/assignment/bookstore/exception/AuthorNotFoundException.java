@@ -0,0 +1,7 @@
+package com.assignment.bookstore.exception;
+
+public class AuthorNotFoundException extends BookstoreException {
+     public AuthorNotFoundException(String message) {
+         super(message);
+     }
+}
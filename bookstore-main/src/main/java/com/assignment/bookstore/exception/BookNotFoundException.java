@@ -1,6 +1,6 @@
 package com.assignment.bookstore.exception;
 
-public class BookNotFoundException extends RuntimeException {
+public class BookNotFoundException extends BookstoreException {
      public BookNotFoundException(String message) {
          super(message);
      }
@@ -0,0 +1,13 @@
+package com.assignment.bookstore.exception;
+
+/**
+ * Base class of the domain exceptions. They signal expected outcomes such as an unknown ISBN
+ * and are always turned into an error response, so they skip the stack trace and suppression
+ * bookkeeping that makes a regular exception expensive to create.
+ */
+public abstract class BookstoreException extends RuntimeException {
+
+    protected BookstoreException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package com.assignment.bookstore.exception;
 
- public class EntityExistsException extends RuntimeException {
+ public class EntityExistsException extends BookstoreException {
      public EntityExistsException(String message) {
          super(message);
      }
@@ -1,6 +1,6 @@
 package com.assignment.bookstore.exception;
 
-public class InvalidInputException extends RuntimeException {
+public class InvalidInputException extends BookstoreException {
 
     public InvalidInputException(String message) {
         super(message);
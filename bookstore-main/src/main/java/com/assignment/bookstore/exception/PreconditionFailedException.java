@@ -0,0 +1,7 @@
+package com.assignment.bookstore.exception;
+
+public class PreconditionFailedException extends BookstoreException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
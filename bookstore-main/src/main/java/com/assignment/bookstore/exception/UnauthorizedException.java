@@ -1,6 +1,6 @@
 package com.assignment.bookstore.exception;
 
-public class UnauthorizedException extends RuntimeException{
+public class UnauthorizedException extends BookstoreException {
     public UnauthorizedException(String message){
     super(message);
 }
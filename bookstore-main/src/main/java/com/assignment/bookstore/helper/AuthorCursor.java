@@ -0,0 +1,33 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Continuation token of an author name lookup. It wraps the normalized name and id of the last
+ * author on the previous page, which together are unique and follow the lookup's order.
+ */
+public record AuthorCursor(String nameKey, long id) {
+
+    private static final String PREFIX = "a1:";
+
+    public String encode() {
+        byte[] raw = (PREFIX + id + ":" + nameKey).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static AuthorCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':', PREFIX.length());
+            if (raw.startsWith(PREFIX) && separator > PREFIX.length()) {
+                return new AuthorCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(PREFIX.length(), separator)));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the common error below
+        }
+        throw new InvalidInputException("Invalid author cursor");
+    }
+}
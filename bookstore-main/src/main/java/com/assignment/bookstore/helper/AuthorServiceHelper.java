@@ -0,0 +1,58 @@
+package com.assignment.bookstore.helper;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Helper class containing utility methods for AuthorService operations.
+ */
+public class AuthorServiceHelper {
+
+    AuthorServiceHelper() {}
+
+    /**
+     * Reduces an author name to the form used for de-duplication: Unicode compatibility
+     * normalized, trimmed, inner whitespace collapsed to single spaces and lower-cased.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC);
+        StringBuilder key = new StringBuilder(normalized.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = key.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            key.append(c);
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Turns a name into a {@code LIKE} pattern matching normalized names that start with it,
+     * escaping LIKE wildcards with a backslash. Blank names yield {@code null}.
+     */
+    public static String toPrefixPattern(String name) {
+        String normalized = normalizeName(name);
+        if (normalized == null || normalized.isEmpty()) {
+            return null;
+        }
+        StringBuilder pattern = new StringBuilder(normalized.length() + 1);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
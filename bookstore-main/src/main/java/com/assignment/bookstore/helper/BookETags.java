@@ -0,0 +1,78 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.SearchPage;
+
+import java.util.List;
+
+/**
+ * Builds strong ETags for book responses from the books' versions, so they can be compared
+ * without serializing the body, and evaluates {@code If-Match} headers against them.
+ */
+public class BookETags {
+
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    BookETags() {}
+
+    public static String of(BookView book) {
+        return of(book.version());
+    }
+
+    /**
+     * Rows written before the version column existed have no version yet and are treated as version 0.
+     */
+    public static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Tags a list by the ISBNs and versions of its books; any added, removed, reordered or updated book changes it.
+     */
+    public static String of(List<BookView> books) {
+        return "\"" + Long.toHexString(hash(books, 0)) + "\"";
+    }
+
+    public static String of(CatalogPage<BookView> page) {
+        return "\"" + Long.toHexString(hash(page.getItems(), page.isHasNext() ? 1 : 0)) + "\"";
+    }
+
+    public static String of(SearchPage<BookView> page) {
+        long seed = mix(page.hasNext() ? 1 : 0, page.totalCount() == null ? -1 : page.totalCount());
+        return "\"" + Long.toHexString(hash(page.items(), seed)) + "\"";
+    }
+
+    /**
+     * Whether an {@code If-Match} header allows writing a book at the given version.
+     * A missing header does not restrict the write; {@code *} matches any existing book.
+     * Weak tags never match, as {@code If-Match} requires strong comparison.
+     */
+    public static boolean matches(String ifMatch, Long version) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.strip();
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long hash(List<BookView> books, long seed) {
+        long hash = seed;
+        for (BookView book : books) {
+            hash = mix(hash, Long.parseLong(book.isbn()));
+            hash = mix(hash, book.version() == null ? 0 : book.version());
+        }
+        return mix(hash, books.size());
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * MIX;
+        return h ^ (h >>> 32);
+    }
+}
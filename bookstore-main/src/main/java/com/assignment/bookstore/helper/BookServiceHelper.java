@@ -1,13 +1,22 @@
 package com.assignment.bookstore.helper;
 
+import com.assignment.bookstore.config.BookstoreProperties;
 import com.assignment.bookstore.entity.Author;
 import com.assignment.bookstore.entity.Book;
 import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.BookAuthorRow;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookSearchCriteria;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
 
@@ -17,6 +26,8 @@ import java.util.Set;
  */
 public class BookServiceHelper {
 
+    private static final List<String> SORTABLE_FIELDS = List.of("isbn", "title", "year", "price", "genre");
+
     BookServiceHelper() {}
 
     /**
@@ -29,9 +40,7 @@ public class BookServiceHelper {
     }
 
     private static void validateISBNFormat(String isbn) {
-        if (!isbn.matches("^[0-9-]{10,17}$")) {
-            throw new InvalidInputException("Invalid ISBN format. Must be 10-17 digits with optional hyphens");
-        }
+        IsbnCodec.parse(isbn);
     }
 
     private static void validateYearRange(int year) {
@@ -47,7 +56,7 @@ public class BookServiceHelper {
 
     public static Book createBookFromDTO(BookDTO bookDTO, List<Author> authors) {
         Book book = new Book();
-        book.setIsbn(bookDTO.getIsbn());
+        book.setIsbn(IsbnCodec.parse(bookDTO.getIsbn()));
         book.setTitle(bookDTO.getTitle());
         book.setYear(bookDTO.getYear());
         book.setPrice(bookDTO.getPrice());
@@ -69,4 +78,124 @@ public class BookServiceHelper {
                 .anyMatch(author -> searchAuthors.stream()
                         .anyMatch(a -> Objects.equals(a.getId(), author.getId())));
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds a catalog page; the cursor points after the last ISBN of the keyset page, even when
+     * some of its books were deleted before their views were loaded.
+     */
+    public static CatalogPage<BookView> toCatalogPage(List<BookView> books, List<Long> pageIsbns, boolean hasNext) {
+        if (!hasNext || pageIsbns.isEmpty()) {
+            return new CatalogPage<>(books, null, false);
+        }
+        String nextCursor = CatalogCursor.encode(pageIsbns.get(pageIsbns.size() - 1));
+        return new CatalogPage<>(books, nextCursor, true);
+    }
+
+    /**
+     * Parses a sort parameter of the form {@code field} or {@code field,asc|desc}. Only the
+     * book columns in {@link #SORTABLE_FIELDS} may be sorted on; blank sorts by ISBN.
+     */
+    public static Sort toSearchSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by("isbn");
+        }
+        String[] parts = sort.split(",", -1);
+        String field = parts[0].strip();
+        if (!SORTABLE_FIELDS.contains(field) || parts.length > 2) {
+            throw new InvalidInputException("Cannot sort by '" + sort + "', use one of " + SORTABLE_FIELDS + " optionally followed by ,asc or ,desc");
+        }
+        if (parts.length == 1) {
+            return Sort.by(field);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(parts[1].strip())
+                .orElseThrow(() -> new InvalidInputException("Sort direction must be asc or desc"));
+        return Sort.by(direction, field);
+    }
+
+    /**
+     * Rejects ranges that cannot contain any book, which are almost always swapped bounds.
+     */
+    public static void validateSearchCriteria(BookSearchCriteria criteria) {
+        if (criteria.yearFrom() != null && criteria.yearTo() != null && criteria.yearFrom() >= criteria.yearTo()) {
+            throw new InvalidInputException("yearFrom must be less than yearTo");
+        }
+        if (criteria.priceFrom() != null && criteria.priceTo() != null && criteria.priceFrom() >= criteria.priceTo()) {
+            throw new InvalidInputException("priceFrom must be less than priceTo");
+        }
+    }
+
+    /**
+     * Applies the configured default and upper bound to a requested page size.
+     */
+    public static int resolvePageSize(BookstoreProperties.Catalog catalog, Integer limit) {
+        if (limit == null) {
+            return catalog.getDefaultPageSize();
+        }
+        if (limit < 1) {
+            throw new InvalidInputException("Page size must be at least 1");
+        }
+        return Math.min(limit, catalog.getMaxPageSize());
+    }
+
+    /**
+     * Position of the first row of a zero-based page.
+     */
+    public static int toOffset(int page, int pageSize) {
+        if (page < 0) {
+            throw new InvalidInputException("Page must not be negative");
+        }
+        long offset = (long) page * pageSize;
+        if (offset > Integer.MAX_VALUE) {
+            throw new InvalidInputException("Page " + page + " is out of range");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Turns a search term into a lower-cased {@code LIKE} pattern matching it anywhere,
+     * escaping LIKE wildcards with a backslash. Blank terms yield {@code null}.
+     */
+    public static String toContainsPattern(String term) {
+        if (term == null || term.isBlank()) {
+            return null;
+        }
+        String lower = term.strip().toLowerCase(Locale.ROOT);
+        StringBuilder pattern = new StringBuilder(lower.length() + 2).append('%');
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Folds book/author rows into views. Rows of the same book must be adjacent.
+     */
+    public static List<BookView> toBookViews(List<BookAuthorRow> rows) {
+        List<BookView> views = new ArrayList<>();
+        BookAuthorRow current = null;
+        List<AuthorView> authors = new ArrayList<>();
+        for (BookAuthorRow row : rows) {
+            if (current != null && !current.isbn().equals(row.isbn())) {
+                views.add(toBookView(current, authors));
+                authors = new ArrayList<>();
+            }
+            current = row;
+            if (row.authorId() != null) {
+                authors.add(new AuthorView(row.authorId(), row.authorName(), row.authorBirthday()));
+            }
+        }
+        if (current != null) {
+            views.add(toBookView(current, authors));
+        }
+        return views;
+    }
+
+    private static BookView toBookView(BookAuthorRow row, List<AuthorView> authors) {
+        return new BookView(IsbnCodec.format(row.isbn()), row.title(), row.year(), row.price(), row.genre(), List.copyOf(authors),
+                row.version());
+    }
+}
@@ -0,0 +1,127 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookDTO;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses the CSV flavour of the bulk catalog import, one record per line.
+ * Fields may be quoted with {@code "}, and a doubled quote inside a quoted field is a literal quote.
+ */
+public class CatalogCsvParser {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("isbn", "title", "year", "price", "genre", "authors");
+
+    CatalogCsvParser() {}
+
+    /**
+     * Maps the lower-cased column names of the header row to their positions.
+     */
+    public static Map<String, Integer> readHeader(String line) {
+        List<String> names = splitLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidInputException("CSV header is missing column '" + required + "'");
+            }
+        }
+        return columns;
+    }
+
+    public static BookDTO toBookDTO(String line, Map<String, Integer> columns) {
+        List<String> fields = splitLine(line);
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setIsbn(field(fields, columns, "isbn"));
+        bookDTO.setTitle(field(fields, columns, "title"));
+        bookDTO.setYear(parseInt(field(fields, columns, "year"), "year"));
+        bookDTO.setPrice(parseDouble(field(fields, columns, "price"), "price"));
+        bookDTO.setGenre(field(fields, columns, "genre"));
+        bookDTO.setAuthors(parseAuthors(field(fields, columns, "authors")));
+        return bookDTO;
+    }
+
+    public static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidInputException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static List<AuthorDTO> parseAuthors(String value) {
+        List<AuthorDTO> authors = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return authors;
+        }
+        for (String entry : value.split(";")) {
+            int separator = entry.indexOf('|');
+            String name = separator < 0 ? entry : entry.substring(0, separator);
+            LocalDate birthday = separator < 0 ? null : parseDate(entry.substring(separator + 1).trim());
+            authors.add(new AuthorDTO(name.trim(), birthday));
+        }
+        return authors;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < fields.size() ? fields.get(index).trim() : null;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new InvalidInputException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String name) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new InvalidInputException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputException("Invalid author birthday: " + value);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque continuation token used by keyset pagination.
+ * The token wraps the last key of the previous page so clients cannot depend on its shape.
+ */
+public class CatalogCursor {
+
+    private static final String PREFIX = "k1:";
+
+    CatalogCursor() {}
+
+    public static String encode(long lastKey) {
+        byte[] raw = (PREFIX + lastKey).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(PREFIX) && raw.length() > PREFIX.length()) {
+                return Long.parseLong(raw.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the common error below
+        }
+        throw new InvalidInputException("Invalid catalog cursor");
+    }
+}
@@ -0,0 +1,105 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+
+/**
+ * Validates ISBN-10 and ISBN-13 check digits and maps both forms to one canonical key: the
+ * thirteen ISBN-13 digits as a {@code long}. Hyphens and spaces are ignored, so every way of
+ * writing the same ISBN yields the same key. Validation walks the characters once and does not
+ * allocate; only {@link #parse} allocates, and only to report invalid input.
+ */
+public class IsbnCodec {
+
+    /**
+     * Returned by {@link #toKey} for input that is not a valid ISBN.
+     */
+    public static final long INVALID = -1L;
+
+    private static final long PREFIX_978 = 978_000_000_000L;
+
+    IsbnCodec() {}
+
+    /**
+     * Returns the canonical key of the ISBN, or {@link #INVALID}.
+     */
+    public static long toKey(CharSequence isbn) {
+        if (isbn == null) {
+            return INVALID;
+        }
+        long digits = 0;
+        int count = 0;
+        int sum10 = 0;
+        int sum13 = 0;
+        boolean checkX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkX || count == 13) {
+                return INVALID;
+            }
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+                digits = digits * 10 + digit;
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                digit = 10;
+                checkX = true;
+            } else {
+                return INVALID;
+            }
+            if (count < 10) {
+                sum10 += digit * (10 - count);
+            }
+            sum13 += (count & 1) == 0 ? digit : 3 * digit;
+            count++;
+        }
+        if (count == 10) {
+            if (sum10 % 11 != 0) {
+                return INVALID;
+            }
+            long first12 = PREFIX_978 + (checkX ? digits : digits / 10);
+            return first12 * 10 + checkDigit13(first12);
+        }
+        if (count == 13 && sum13 % 10 == 0) {
+            long prefix = digits / 10_000_000_000L;
+            return prefix == 978 || prefix == 979 ? digits : INVALID;
+        }
+        return INVALID;
+    }
+
+    public static boolean isValid(CharSequence isbn) {
+        return toKey(isbn) != INVALID;
+    }
+
+    /**
+     * Returns the canonical key of the ISBN or rejects it as invalid input.
+     */
+    public static long parse(String isbn) {
+        long key = toKey(isbn);
+        if (key == INVALID) {
+            throw new InvalidInputException("Invalid ISBN. Must be a valid ISBN-10 or ISBN-13 with optional hyphens");
+        }
+        return key;
+    }
+
+    /**
+     * Formats a canonical key as its thirteen ISBN-13 digits.
+     */
+    public static String format(long key) {
+        return Long.toString(key);
+    }
+
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        long rest = first12;
+        // the rightmost of the twelve digits has weight 3, then weights alternate
+        for (int position = 0; position < 12; position++) {
+            int digit = (int) (rest % 10);
+            sum += (position & 1) == 0 ? 3 * digit : digit;
+            rest /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,13 @@
+package com.assignment.bookstore.model;
+
+import java.time.LocalDate;
+
+/**
+ * An author together with the normalized name its lookups are ordered by.
+ */
+public record AuthorRow(Long id, String name, LocalDate birthday, String nameKey) {
+
+    public AuthorView toView() {
+        return new AuthorView(id, name, birthday);
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.bookstore.model;
+
+import com.assignment.bookstore.entity.Author;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only author representation returned by the API.
+ */
+public record AuthorView(Long id, String name, LocalDate birthday) {
+
+    public static AuthorView of(Author author) {
+        return new AuthorView(author.getId(), author.getName(), author.getBirthday());
+    }
+}
@@ -0,0 +1,11 @@
+package com.assignment.bookstore.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a book left-joined with one of its authors. The author columns are {@code null}
+ * for a book without authors. Rows are folded into {@link BookView}s by the service layer.
+ */
+public record BookAuthorRow(Long isbn, String title, Integer year, Double price, String genre, Long version,
+                            Long authorId, String authorName, LocalDate authorBirthday) {
+}
@@ -0,0 +1,7 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Number of books sharing genre, year and price, as counted by the database.
+ */
+public record BookFacetGroup(String genre, Integer year, Double price, Long count) {
+}
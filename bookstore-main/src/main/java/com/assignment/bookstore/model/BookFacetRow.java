@@ -0,0 +1,13 @@
+package com.assignment.bookstore.model;
+
+import com.assignment.bookstore.event.BookSnapshot;
+
+/**
+ * The columns of one book that facets are counted over.
+ */
+public record BookFacetRow(Long isbn, String genre, Integer year, Double price) {
+
+    public static BookFacetRow of(BookSnapshot book) {
+        return new BookFacetRow(book.isbn(), book.genre(), book.year(), book.price());
+    }
+}
@@ -0,0 +1,10 @@
+package com.assignment.bookstore.model;
+
+import java.util.List;
+
+/**
+ * Result of a multi-ISBN lookup: the books that exist, in request order, and the canonical
+ * ISBNs of those that do not.
+ */
+public record BookLookup(List<BookView> found, List<String> missing) {
+}
@@ -0,0 +1,10 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Optional filters of a catalog search; a {@code null} or blank value does not filter. Title and
+ * author match case-insensitive substrings, genre matches exactly. Ranges include {@code from}
+ * and exclude {@code to}, like the {@link RangeCount}s of the catalog facets.
+ */
+public record BookSearchCriteria(String title, String author, String genre,
+                                 Integer yearFrom, Integer yearTo, Double priceFrom, Double priceTo) {
+}
@@ -0,0 +1,28 @@
+package com.assignment.bookstore.model;
+
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.helper.IsbnCodec;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only book representation returned by the API, with its authors flattened in.
+ * The ISBN is always given in its canonical 13-digit form.
+ * Built from query rows or from an entity still inside its transaction, so serializing it
+ * never touches the persistence context. The version is not part of the body; it is sent as the ETag.
+ */
+public record BookView(String isbn, String title, Integer year, Double price, String genre, List<AuthorView> authors,
+                       @JsonIgnore Long version) {
+
+    public static BookView of(Book book) {
+        List<AuthorView> authors = book.getAuthors() == null ? List.of()
+                : book.getAuthors().stream()
+                        .map(AuthorView::of)
+                        .sorted(Comparator.comparing(AuthorView::id, Comparator.nullsLast(Comparator.naturalOrder())))
+                        .toList();
+        return new BookView(IsbnCodec.format(book.getIsbn()), book.getTitle(), book.getYear(), book.getPrice(), book.getGenre(), authors,
+                book.getVersion());
+    }
+}
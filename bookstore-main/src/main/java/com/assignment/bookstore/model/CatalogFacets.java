@@ -0,0 +1,10 @@
+package com.assignment.bookstore.model;
+
+import java.util.List;
+
+/**
+ * Catalog-wide facet counts. Genres are ordered by count, largest first. Every configured
+ * price range is listed, while year buckets are listed only when they contain books.
+ */
+public record CatalogFacets(long totalBooks, List<FacetCount> genres, List<RangeCount> prices, List<RangeCount> years) {
+}
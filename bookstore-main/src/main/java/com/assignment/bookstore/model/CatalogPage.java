@@ -0,0 +1,21 @@
+package com.assignment.bookstore.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset paginated listing. {@code nextCursor} is an opaque token
+ * to pass back for the following page and is {@code null} on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogPage<T> {
+
+    private final List<T> items;
+
+    private final String nextCursor;
+
+    private final boolean hasNext;
+}
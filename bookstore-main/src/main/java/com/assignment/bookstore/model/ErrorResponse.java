@@ -0,0 +1,15 @@
+package com.assignment.bookstore.model;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+
+/**
+ * Body of every error response. {@code error} is the status' reason phrase.
+ */
+public record ErrorResponse(Instant timestamp, int status, String error, String message) {
+
+    public static ErrorResponse of(HttpStatus status, String message) {
+        return new ErrorResponse(Instant.now(), status.value(), status.getReasonPhrase(), message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Number of books sharing one facet value, such as a genre.
+ */
+public record FacetCount(String value, long count) {
+}
@@ -0,0 +1,18 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Record formats accepted by the bulk catalog import.
+ */
+public enum ImportFormat {
+
+    /**
+     * One JSON encoded {@link BookDTO} per line.
+     */
+    NDJSON,
+
+    /**
+     * Comma separated values with a header row naming the {@link BookDTO} fields. Authors are
+     * separated by {@code ;} and may carry a birthday as {@code Name|yyyy-MM-dd}.
+     */
+    CSV
+}
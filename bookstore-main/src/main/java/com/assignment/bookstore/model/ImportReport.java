@@ -0,0 +1,49 @@
+package com.assignment.bookstore.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalog import. Counters are exact; the error list is capped so that a
+ * badly broken feed cannot grow the report without bound.
+ */
+@Getter
+public class ImportReport {
+
+    private long received;
+
+    private long imported;
+
+    private long failed;
+
+    private boolean errorsTruncated;
+
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxReportedErrors;
+
+    public ImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void recordReceived() {
+        received++;
+    }
+
+    public void recordImported(int count) {
+        imported += count;
+    }
+
+    public void recordFailure(long line, String isbn, String message) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new ImportRowError(line, isbn, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.bookstore.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportRowError {
+
+    private final long line;
+
+    private final String isbn;
+
+    private final String message;
+}
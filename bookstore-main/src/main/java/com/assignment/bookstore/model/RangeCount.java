@@ -0,0 +1,7 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Number of books in the range {@code [from, to)}. A {@code null} bound leaves that side open.
+ */
+public record RangeCount(Number from, Number to, long count) {
+}
@@ -0,0 +1,10 @@
+package com.assignment.bookstore.model;
+
+import java.util.List;
+
+/**
+ * One page of a filtered, sorted listing. {@code totalCount} is only filled in when the client
+ * asked for it; {@code hasNext} is always known.
+ */
+public record SearchPage<T>(List<T> items, int page, int size, boolean hasNext, Long totalCount) {
+}
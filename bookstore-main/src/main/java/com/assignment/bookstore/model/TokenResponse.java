@@ -0,0 +1,7 @@
+package com.assignment.bookstore.model;
+
+/**
+ * Access token issued in exchange for credentials, to be sent as {@code Authorization: Bearer <accessToken>}.
+ */
+public record TokenResponse(String accessToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,18 @@
+package com.assignment.bookstore.repository;
+
+import com.assignment.bookstore.entity.Author;
+
+import java.util.List;
+
+/**
+ * Inserts authors that a concurrent request may be creating at the same time.
+ */
+public interface AuthorInsertRepository {
+
+    /**
+     * Inserts the authors as one JDBC batch, skipping every author whose normalized name and
+     * birthday are already stored, including by a transaction that commits meanwhile. The given
+     * instances stay unmanaged and get no id; read the stored rows back by name key.
+     */
+    void insertIfAbsent(List<Author> authors);
+}
@@ -1,12 +1,44 @@
 package com.assignment.bookstore.repository;
 
 import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.model.AuthorRow;
+import com.assignment.bookstore.model.AuthorView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
-    List<Author> findByNameIgnoreCaseContaining(String name);
-}
\ No newline at end of file
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorInsertRepository {
+
+    // Compares lower(name) rather than the upper(...) of a derived IgnoreCase query, so that the
+    // trigram index on lower(authors.name) serves it, like the book search.
+    @Query("select a from Author a where lower(a.name) like :namePattern escape '\\'")
+    List<Author> searchByName(@Param("namePattern") String namePattern);
+
+    List<Author> findByNameKeyIn(Collection<String> nameKeys);
+
+    String AUTHOR_VIEW = "select new com.assignment.bookstore.model.AuthorView(a.id, a.name, a.birthday) from Author a";
+
+    String AUTHOR_ROW = "select new com.assignment.bookstore.model.AuthorRow(a.id, a.name, a.birthday, a.nameKey) from Author a";
+
+    // Keyset pages read straight from an index in page order: the primary key for the listing,
+    // idx_authors_name_key_id for prefix lookups, whose cursor is the (name_key, id) row value.
+    @Query(AUTHOR_VIEW + " order by a.id")
+    List<AuthorView> findViewPage(Limit limit);
+
+    @Query(AUTHOR_VIEW + " where a.id > :id order by a.id")
+    List<AuthorView> findViewPageAfter(@Param("id") Long id, Limit limit);
+
+    @Query(AUTHOR_ROW + " where a.nameKey like :prefix escape '\\' order by a.nameKey, a.id")
+    List<AuthorRow> findByNamePrefix(@Param("prefix") String prefix, Limit limit);
+
+    @Query(AUTHOR_ROW + " where a.nameKey like :prefix escape '\\' and (a.nameKey, a.id) > (:nameKey, :id)"
+            + " order by a.nameKey, a.id")
+    List<AuthorRow> findByNamePrefixAfter(@Param("prefix") String prefix, @Param("nameKey") String nameKey,
+                                          @Param("id") Long id, Limit limit);
+}
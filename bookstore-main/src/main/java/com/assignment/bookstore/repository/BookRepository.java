@@ -1,12 +1,121 @@
 package com.assignment.bookstore.repository;
 
 import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.model.BookAuthorRow;
+import com.assignment.bookstore.model.BookFacetGroup;
+import com.assignment.bookstore.model.BookFacetRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, String> {
-    List<Book> findByTitleContainingIgnoreCaseAndAuthorsNameContainingIgnoreCase(String title, String author);
+public interface BookRepository extends JpaRepository<Book, Long>, BookSearchRepository {
+
+    @Override
+    @EntityGraph(Book.WITH_AUTHORS)
+    Optional<Book> findById(Long isbn);
+
+    @Override
+    @EntityGraph(Book.WITH_AUTHORS)
+    List<Book> findAll();
+
+    String BOOK_AUTHOR_ROW = "select new com.assignment.bookstore.model.BookAuthorRow("
+            + "b.isbn, b.title, b.year, b.price, b.genre, b.version, a.id, a.name, a.birthday) from Book b left join b.authors a";
+
+    // Read paths select flat rows straight into BookAuthorRow so responses never hydrate entities.
+    // Not query cached: BookService serves these rows per ISBN from its BookCache and only loads
+    // the misses, where a query cache entry per ISBN set would be dropped by any catalog write.
+    @Query(BOOK_AUTHOR_ROW + " where b.isbn in :isbns order by b.isbn, a.id")
+    List<BookAuthorRow> findViewRowsByIsbnIn(@Param("isbns") Collection<Long> isbns);
+
+    @Query(BOOK_AUTHOR_ROW + " order by b.isbn, a.id")
+    List<BookAuthorRow> findAllViewRows();
+
+    // Substring searches compare lower(...) against a lower-cased LIKE pattern so that the
+    // pg_trgm GIN indexes on lower(books.title) and lower(authors.name) can serve them.
+    // Results go to the query cache; native queries must name the tables they read, otherwise
+    // Hibernate cannot tell which writes make a cached result stale.
+    @Query(value = "select b.isbn from books b where lower(b.title) like :titlePattern escape '\\'", nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books")
+    })
+    List<Long> searchByTitle(@Param("titlePattern") String titlePattern);
+
+    @Query(value = "select b.isbn from books b where exists (select 1 from book_authors ba join authors a on a.id = ba.author_id"
+            + " where ba.book_isbn = b.isbn and lower(a.name) like :authorPattern escape '\\')", nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_authors"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "authors")
+    })
+    List<Long> searchByAuthor(@Param("authorPattern") String authorPattern);
+
+    @Query(value = "select b.isbn from books b where lower(b.title) like :titlePattern escape '\\'"
+            + " and exists (select 1 from book_authors ba join authors a on a.id = ba.author_id"
+            + " where ba.book_isbn = b.isbn and lower(a.name) like :authorPattern escape '\\')", nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "books"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_authors"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "authors")
+    })
+    List<Long> searchByTitleAndAuthor(@Param("titlePattern") String titlePattern, @Param("authorPattern") String authorPattern);
+
+    // Keyset pages select ISBNs first: a join combined with a row limit would count author rows,
+    // not books. The page's rows are then loaded with findViewRowsByIsbnIn.
+    @Query("select b.isbn from Book b order by b.isbn")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Long> findIsbnPage(Limit limit);
+
+    @Query("select b.isbn from Book b where b.isbn > :isbn order by b.isbn")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Long> findIsbnPageAfter(@Param("isbn") Long isbn, Limit limit);
+
+    // An author's books are paged from the link table alone, in the order of the (author_id, book_isbn)
+    // index, so neither books nor authors are read until the page's rows are loaded.
+    @Query(value = "select ba.book_isbn from book_authors ba where ba.author_id = :authorId order by ba.book_isbn",
+            nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_authors")
+    })
+    List<Long> findIsbnPageByAuthor(@Param("authorId") Long authorId, Limit limit);
+
+    @Query(value = "select ba.book_isbn from book_authors ba where ba.author_id = :authorId and ba.book_isbn > :isbn"
+            + " order by ba.book_isbn", nativeQuery = true)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "book_authors")
+    })
+    List<Long> findIsbnPageByAuthorAfter(@Param("authorId") Long authorId, @Param("isbn") Long isbn, Limit limit);
+
+    // Entity pages for internal consumers such as the search index rebuild; authors come by @BatchSize.
+    List<Book> findAllByOrderByIsbnAsc(Limit limit);
+
+    List<Book> findByIsbnGreaterThanOrderByIsbnAsc(Long isbn, Limit limit);
+
+    // Facet counts are rebuilt from these pages once at startup and maintained from events afterwards;
+    // the grouped query only answers requests that arrive before the rebuild finished.
+    @Query("select new com.assignment.bookstore.model.BookFacetRow(b.isbn, b.genre, b.year, b.price)"
+            + " from Book b where b.isbn > :isbn order by b.isbn")
+    List<BookFacetRow> findFacetRowsAfter(@Param("isbn") Long isbn, Limit limit);
+
+    @Query("select new com.assignment.bookstore.model.BookFacetGroup(b.genre, b.year, b.price, count(b))"
+            + " from Book b group by b.genre, b.year, b.price")
+    List<BookFacetGroup> countFacetGroups();
+
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<Long> findExistingIsbns(@Param("isbns") Collection<Long> isbns);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.assignment.bookstore.repository;
+
+import com.assignment.bookstore.model.BookSearchCriteria;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * Catalog searches whose predicates depend on which filters a client supplied.
+ */
+public interface BookSearchRepository {
+
+    /**
+     * Returns the ISBNs of the matching books in the given order, skipping {@code offset} matches.
+     */
+    List<Long> findMatchingIsbns(BookSearchCriteria criteria, Sort sort, int offset, int limit);
+
+    long countMatching(BookSearchCriteria criteria);
+}
@@ -0,0 +1,97 @@
+package com.assignment.bookstore.repository;
+
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.helper.BookServiceHelper;
+import com.assignment.bookstore.model.BookSearchCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the search with the Criteria API so that only supplied filters become predicates.
+ * Title and author compare lower(...) against a lower-cased LIKE pattern, the shape served by
+ * the trigram indexes, and the author filter is an EXISTS so that books are never repeated.
+ * Results are query cached like the other search queries.
+ */
+class BookSearchRepositoryImpl implements BookSearchRepository {
+
+    private static final char ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    BookSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Long> findMatchingIsbns(BookSearchCriteria criteria, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        // the ISBN breaks ties so that pages never overlap
+        Sort order = sort.getOrderFor("isbn") == null ? sort.and(Sort.by("isbn")) : sort;
+        query.select(book.get("isbn"))
+                .where(predicates(cb, query, book, criteria))
+                .orderBy(QueryUtils.toOrders(order, book, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    @Override
+    public long countMatching(BookSearchCriteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> book = query.from(Book.class);
+        query.select(cb.count(book)).where(predicates(cb, query, book, criteria));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getSingleResult();
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, AbstractQuery<?> query, Root<Book> book,
+                                          BookSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        String titlePattern = BookServiceHelper.toContainsPattern(criteria.title());
+        if (titlePattern != null) {
+            predicates.add(cb.like(cb.lower(book.get("title")), titlePattern, ESCAPE));
+        }
+        String authorPattern = BookServiceHelper.toContainsPattern(criteria.author());
+        if (authorPattern != null) {
+            Subquery<Long> authored = query.subquery(Long.class);
+            Join<Book, Author> author = authored.correlate(book).join("authors");
+            authored.select(author.get("id")).where(cb.like(cb.lower(author.get("name")), authorPattern, ESCAPE));
+            predicates.add(cb.exists(authored));
+        }
+        if (criteria.genre() != null && !criteria.genre().isBlank()) {
+            predicates.add(cb.equal(book.get("genre"), criteria.genre().strip()));
+        }
+        if (criteria.yearFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.get("year"), criteria.yearFrom()));
+        }
+        if (criteria.yearTo() != null) {
+            predicates.add(cb.lessThan(book.get("year"), criteria.yearTo()));
+        }
+        if (criteria.priceFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(book.get("price"), criteria.priceFrom()));
+        }
+        if (criteria.priceTo() != null) {
+            predicates.add(cb.lessThan(book.get("price"), criteria.priceTo()));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+}
@@ -0,0 +1,384 @@
+package com.assignment.bookstore.search;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
+import com.assignment.bookstore.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over book titles and author names, ranked with BM25.
+ * <p>
+ * Every field keeps a sorted term dictionary whose postings are parallel {@code int} arrays of
+ * document ids and term frequencies. The index is rebuilt from {@link BookRepository} once the
+ * application is ready and then follows committed {@link BookChangedEvent}s. It stays empty
+ * unless {@code bookstore.search.backend} is {@code index}.
+ */
+@Component
+@Slf4j
+public class BookSearchIndex {
+
+    enum Field {
+        TITLE(1.0), AUTHOR(1.0);
+
+        private final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final boolean enabled;
+    private final int maxResults;
+    private final Duration rebuildRetryDelay;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskScheduler taskScheduler;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final EnumMap<Field, TreeMap<String, Postings>> dictionaries = new EnumMap<>(Field.class);
+    private final long[] totalFieldLengths = new long[Field.values().length];
+    private final Map<Long, Integer> docIdsByIsbn = new HashMap<>();
+    private final ArrayDeque<Integer> freeDocIds = new ArrayDeque<>();
+    private Document[] documents = new Document[1024];
+    private int nextDocId;
+
+    // guarded by the write lock
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+    private volatile boolean ready;
+
+    public BookSearchIndex(BookstoreProperties properties, BookRepository bookRepository,
+                           PlatformTransactionManager transactionManager, TaskScheduler taskScheduler) {
+        BookstoreProperties.Search search = properties.getSearch();
+        this.enabled = search.getBackend() == BookstoreProperties.SearchBackend.INDEX;
+        this.maxResults = search.getMaxResults();
+        this.rebuildRetryDelay = search.getRebuildRetryDelay();
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+        for (Field field : Field.values()) {
+            dictionaries.put(field, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Whether searches should be answered from this index rather than the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs off the startup thread; searches fall back to the database until the index is ready.
+     * Each page is applied under the write lock that committed changes also take, so a change
+     * lands either before the page, which then skips the book, or after it. A failed rebuild is
+     * retried after {@code bookstore.search.rebuild-retry-delay}; changes keep being applied
+     * meanwhile, so the books indexed so far stay current.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int indexed = 0;
+        boolean built = false;
+        try {
+            Long lastIsbn = null;
+            List<BookSnapshot> page;
+            do {
+                Long after = lastIsbn;
+                page = readOnlyTransaction.execute(status -> loadPage(after));
+                lastIsbn = indexPage(page, lastIsbn);
+                indexed += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            built = true;
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed after {} books, retrying in {}", indexed, rebuildRetryDelay, e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+                ready = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (!built) {
+            taskScheduler.schedule(this::rebuild, Instant.now().plus(rebuildRetryDelay));
+            return;
+        }
+        log.info("Search index built with {} books in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.isbn());
+            }
+            if (event.after() == null) {
+                remove(event.isbn());
+            } else {
+                index(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the book to the index, replacing any earlier version of it.
+     */
+    public void index(BookSnapshot book) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdsByIsbn.get(book.isbn());
+            if (existing != null) {
+                removeDocument(existing);
+            }
+            int docId = allocateDocId();
+            Document document = new Document(book.isbn());
+            addField(docId, document, Field.TITLE, SearchTokenizer.tokenize(book.title()));
+            List<String> authorTokens = new ArrayList<>();
+            for (String name : book.authorNames()) {
+                authorTokens.addAll(SearchTokenizer.tokenize(name));
+            }
+            addField(docId, document, Field.AUTHOR, authorTokens);
+            documents[docId] = document;
+            docIdsByIsbn.put(book.isbn(), docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long isbn) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByIsbn.remove(isbn);
+            if (docId != null) {
+                removeDocument(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ISBNs of books matching every term, best match first. Title terms must occur in
+     * the title, as with the database search, and author terms in any author name. The last term
+     * of each criterion also matches as a prefix so partially typed words still find results.
+     */
+    public List<Long> search(String title, String author) {
+        List<Clause> clauses = new ArrayList<>();
+        addClauses(clauses, SearchTokenizer.tokenize(title), EnumSet.of(Field.TITLE));
+        addClauses(clauses, SearchTokenizer.tokenize(author), EnumSet.of(Field.AUTHOR));
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = null;
+            for (Clause clause : clauses) {
+                Map<Integer, Double> clauseScores = scoreClause(clause, scores);
+                if (scores == null) {
+                    scores = clauseScores;
+                } else {
+                    scores.keySet().retainAll(clauseScores.keySet());
+                    scores.replaceAll((docId, score) -> score + clauseScores.get(docId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                            .thenComparingLong(entry -> documents[entry.getKey()].isbn))
+                    .limit(maxResults)
+                    .map(entry -> documents[entry.getKey()].isbn)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Long indexPage(List<BookSnapshot> page, Long lastIsbn) {
+        lock.writeLock().lock();
+        try {
+            for (BookSnapshot book : page) {
+                // the page may have been read before a change that has been applied since
+                if (!changedDuringRebuild.contains(book.isbn())) {
+                    index(book);
+                }
+                lastIsbn = book.isbn();
+            }
+            return lastIsbn;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<BookSnapshot> loadPage(Long afterIsbn) {
+        List<Book> books = afterIsbn == null
+                ? bookRepository.findAllByOrderByIsbnAsc(Limit.of(REBUILD_PAGE_SIZE))
+                : bookRepository.findByIsbnGreaterThanOrderByIsbnAsc(afterIsbn, Limit.of(REBUILD_PAGE_SIZE));
+        return books.stream().map(BookSnapshot::of).toList();
+    }
+
+    private static void addClauses(List<Clause> clauses, List<String> tokens, EnumSet<Field> fields) {
+        for (int i = 0; i < tokens.size(); i++) {
+            clauses.add(new Clause(tokens.get(i), i == tokens.size() - 1, fields));
+        }
+    }
+
+    private Map<Integer, Double> scoreClause(Clause clause, Map<Integer, Double> candidates) {
+        Map<Integer, Double> clauseScores = new HashMap<>();
+        int documentCount = docIdsByIsbn.size();
+        for (Field field : clause.fields()) {
+            TreeMap<String, Postings> dictionary = dictionaries.get(field);
+            Collection<Postings> matches = clause.prefix()
+                    ? dictionary.subMap(clause.term(), true, clause.term() + Character.MAX_VALUE, false).values()
+                    : Optional.ofNullable(dictionary.get(clause.term())).map(List::of).orElse(List.of());
+            double averageLength = documentCount == 0 ? 1 : Math.max(1.0, (double) totalFieldLengths[field.ordinal()] / documentCount);
+            for (Postings postings : matches) {
+                double idf = Math.log(1 + (documentCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int docId = postings.docs[i];
+                    if (candidates != null && !candidates.containsKey(docId)) {
+                        continue;
+                    }
+                    int tf = postings.freqs[i];
+                    int length = documents[docId].fieldLengths[field.ordinal()];
+                    double score = field.weight * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                    clauseScores.merge(docId, score, Double::sum);
+                }
+            }
+        }
+        return clauseScores;
+    }
+
+    private int allocateDocId() {
+        Integer reused = freeDocIds.poll();
+        if (reused != null) {
+            return reused;
+        }
+        if (nextDocId == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        return nextDocId++;
+    }
+
+    private void addField(int docId, Document document, Field field, List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        TreeMap<String, Postings> dictionary = dictionaries.get(field);
+        frequencies.forEach((term, frequency) -> dictionary.computeIfAbsent(term, t -> new Postings()).put(docId, frequency));
+        document.fieldLengths[field.ordinal()] = tokens.size();
+        document.terms[field.ordinal()] = frequencies.keySet().toArray(String[]::new);
+        totalFieldLengths[field.ordinal()] += tokens.size();
+    }
+
+    private void removeDocument(int docId) {
+        Document document = documents[docId];
+        for (Field field : Field.values()) {
+            TreeMap<String, Postings> dictionary = dictionaries.get(field);
+            for (String term : document.terms[field.ordinal()]) {
+                Postings postings = dictionary.get(term);
+                postings.remove(docId);
+                if (postings.size == 0) {
+                    dictionary.remove(term);
+                }
+            }
+            totalFieldLengths[field.ordinal()] -= document.fieldLengths[field.ordinal()];
+        }
+        documents[docId] = null;
+        freeDocIds.push(docId);
+    }
+
+    private record Clause(String term, boolean prefix, EnumSet<Field> fields) {}
+
+    private static final class Document {
+
+        private final long isbn;
+        private final int[] fieldLengths = new int[Field.values().length];
+        private final String[][] terms = new String[Field.values().length][];
+
+        private Document(long isbn) {
+            this.isbn = isbn;
+        }
+    }
+
+    /**
+     * Document ids in ascending order with their term frequencies in a parallel array.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int size;
+
+        private void put(int docId, int frequency) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index >= 0) {
+                freqs[index] = frequency;
+                return;
+            }
+            index = -index - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, index, docs, index + 1, size - index);
+            System.arraycopy(freqs, index, freqs, index + 1, size - index);
+            docs[index] = docId;
+            freqs[index] = frequency;
+            size++;
+        }
+
+        private void remove(int docId) {
+            int index = Arrays.binarySearch(docs, 0, size, docId);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            System.arraycopy(freqs, index + 1, freqs, index, size - index - 1);
+            size--;
+        }
+    }
+}
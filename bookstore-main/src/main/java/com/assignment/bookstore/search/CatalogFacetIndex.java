@@ -0,0 +1,314 @@
+package com.assignment.bookstore.search;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
+import com.assignment.bookstore.model.BookFacetGroup;
+import com.assignment.bookstore.model.BookFacetRow;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.FacetCount;
+import com.assignment.bookstore.model.RangeCount;
+import com.assignment.bookstore.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalog-wide facet counts by genre, price range and publication-year bucket.
+ * <p>
+ * The counts are rebuilt from {@link BookRepository} once the application is ready and then
+ * follow committed {@link BookChangedEvent}s, moving each book from the buckets of its values
+ * before the change to those after it. Only the counters are kept, not the books. Readers share
+ * an immutable {@link CatalogFacets} that is recomputed from the counters after a change.
+ */
+@Component
+@Slf4j
+public class CatalogFacetIndex {
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final double[] priceBreaks;
+    private final int yearBucketSize;
+    private final Duration rebuildRetryDelay;
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskScheduler taskScheduler;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Counts counts;
+    private volatile boolean ready;
+    private volatile CatalogFacets snapshot;
+
+    // only while rebuilding: the new counters, the last ISBN they include and, for books changed
+    // before their page was counted, the values to count instead (null once deleted)
+    private Counts rebuilt;
+    private long rebuiltThrough;
+    private Map<Long, BookFacetRow> changedDuringRebuild;
+
+    public CatalogFacetIndex(BookstoreProperties properties, BookRepository bookRepository,
+                             PlatformTransactionManager transactionManager, TaskScheduler taskScheduler) {
+        BookstoreProperties.Facets facets = properties.getFacets();
+        this.priceBreaks = facets.getPriceBreaks().stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        this.yearBucketSize = Math.max(1, facets.getYearBucketSize());
+        this.rebuildRetryDelay = facets.getRebuildRetryDelay();
+        this.counts = new Counts();
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Whether facets should be answered from these counts rather than the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Runs off the startup thread; facets are counted by the database until it has finished. A
+     * failed count is dropped and retried after {@code bookstore.facets.rebuild-retry-delay}.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            rebuilt = new Counts();
+            rebuiltThrough = 0;
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int counted = 0;
+        boolean built = false;
+        try {
+            long lastIsbn = 0;
+            List<BookFacetRow> page;
+            do {
+                long after = lastIsbn;
+                page = readOnlyTransaction.execute(status -> bookRepository.findFacetRowsAfter(after, Limit.of(REBUILD_PAGE_SIZE)));
+                lastIsbn = countPage(page, lastIsbn);
+                counted += page.size();
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            built = true;
+        } catch (RuntimeException e) {
+            log.error("Catalog facet count failed after {} books, retrying in {}", counted, rebuildRetryDelay, e);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    for (BookFacetRow book : changedDuringRebuild.values()) {
+                        if (book != null) {
+                            rebuilt.add(book, 1);
+                        }
+                    }
+                    counts = rebuilt;
+                    snapshot = null;
+                }
+                rebuilt = null;
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        if (!built) {
+            taskScheduler.schedule(this::rebuild, Instant.now().plus(rebuildRetryDelay));
+            return;
+        }
+        ready = true;
+        log.info("Catalog facets counted over {} books in {} ms", counted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Keeps a book whose change is about to commit out of the pages a running rebuild has yet to
+     * count, as such a page may or may not see the change. Until the change commits, and for
+     * good if it rolls back, the rebuild counts the book with its current values.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBookChanging(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null && event.isbn() > rebuiltThrough
+                    && !changedDuringRebuild.containsKey(event.isbn())) {
+                changedDuringRebuild.put(event.isbn(), facetRow(event.before()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        BookFacetRow before = facetRow(event.before());
+        BookFacetRow after = facetRow(event.after());
+        lock.writeLock().lock();
+        try {
+            move(counts, before, after);
+            if (changedDuringRebuild != null) {
+                if (changedDuringRebuild.containsKey(event.isbn()) || event.isbn() > rebuiltThrough) {
+                    changedDuringRebuild.put(event.isbn(), after);
+                } else {
+                    // its page was counted before the change was about to commit
+                    move(rebuilt, before, after);
+                }
+            }
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(BookFacetRow book) {
+        lock.writeLock().lock();
+        try {
+            move(counts, null, book);
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(BookFacetRow book) {
+        lock.writeLock().lock();
+        try {
+            move(counts, book, null);
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the current facets. Unchanged counts are answered without any work.
+     */
+    public CatalogFacets facets() {
+        CatalogFacets current = snapshot;
+        if (current == null) {
+            lock.readLock().lock();
+            try {
+                // writers wait for the read lock, so this cannot hide a newer change
+                current = counts.toFacets();
+                snapshot = current;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Buckets database counts the same way as the maintained counters.
+     */
+    public CatalogFacets summarize(List<BookFacetGroup> groups) {
+        Counts summary = new Counts();
+        for (BookFacetGroup group : groups) {
+            summary.add(group.genre(), group.year(), group.price(), group.count());
+        }
+        return summary.toFacets();
+    }
+
+    private long countPage(List<BookFacetRow> page, long lastIsbn) {
+        lock.writeLock().lock();
+        try {
+            for (BookFacetRow book : page) {
+                if (!changedDuringRebuild.containsKey(book.isbn())) {
+                    rebuilt.add(book, 1);
+                }
+                lastIsbn = book.isbn();
+            }
+            rebuiltThrough = lastIsbn;
+            return lastIsbn;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void move(Counts target, BookFacetRow before, BookFacetRow after) {
+        if (before != null) {
+            target.add(before, -1);
+        }
+        if (after != null) {
+            target.add(after, 1);
+        }
+    }
+
+    private static BookFacetRow facetRow(BookSnapshot book) {
+        return book == null ? null : BookFacetRow.of(book);
+    }
+
+    private int priceBucket(double price) {
+        int index = Arrays.binarySearch(priceBreaks, price);
+        // a price equal to a break opens the range above it
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private int yearBucket(int year) {
+        return Math.floorDiv(year, yearBucketSize) * yearBucketSize;
+    }
+
+    private static Long sumOrRemove(Long current, Long delta) {
+        long sum = current + delta;
+        return sum == 0 ? null : sum;
+    }
+
+    /**
+     * Counters per genre, price range and year bucket. Books without a value for a facet
+     * only count towards the total.
+     */
+    private final class Counts {
+
+        private long total;
+        private final Map<String, Long> genres = new HashMap<>();
+        private final long[] prices = new long[priceBreaks.length + 1];
+        private final TreeMap<Integer, Long> years = new TreeMap<>();
+
+        private void add(BookFacetRow book, long delta) {
+            add(book.genre(), book.year(), book.price(), delta);
+        }
+
+        private void add(String genre, Integer year, Double price, long delta) {
+            total += delta;
+            if (genre != null) {
+                genres.merge(genre, delta, CatalogFacetIndex::sumOrRemove);
+            }
+            if (price != null) {
+                prices[priceBucket(price)] += delta;
+            }
+            if (year != null) {
+                years.merge(yearBucket(year), delta, CatalogFacetIndex::sumOrRemove);
+            }
+        }
+
+        private CatalogFacets toFacets() {
+            List<FacetCount> genreCounts = genres.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .map(entry -> new FacetCount(entry.getKey(), entry.getValue()))
+                    .toList();
+            List<RangeCount> priceCounts = new ArrayList<>(prices.length);
+            for (int i = 0; i < prices.length; i++) {
+                Double from = i == 0 ? null : priceBreaks[i - 1];
+                Double to = i == priceBreaks.length ? null : priceBreaks[i];
+                priceCounts.add(new RangeCount(from, to, prices[i]));
+            }
+            List<RangeCount> yearCounts = years.entrySet().stream()
+                    .map(entry -> new RangeCount(entry.getKey(), entry.getKey() + yearBucketSize, entry.getValue()))
+                    .toList();
+            return new CatalogFacets(total, genreCounts, List.copyOf(priceCounts), yearCounts);
+        }
+    }
+}
@@ -1,42 +1,141 @@
 package com.assignment.bookstore.service;
 
+import com.assignment.bookstore.cache.AuthorCache;
+import com.assignment.bookstore.cache.AuthorKey;
+import com.assignment.bookstore.config.BookstoreProperties;
 import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.helper.AuthorCursor;
+import com.assignment.bookstore.helper.AuthorServiceHelper;
+import com.assignment.bookstore.helper.BookServiceHelper;
+import com.assignment.bookstore.helper.CatalogCursor;
 import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.AuthorRow;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.CatalogPage;
 import com.assignment.bookstore.repository.AuthorRepository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final AuthorCache authorCache;
+    private final BookstoreProperties properties;
 
-    public AuthorService(AuthorRepository authorRepository) {
+    public AuthorService(AuthorRepository authorRepository, AuthorCache authorCache, BookstoreProperties properties) {
         this.authorRepository = authorRepository;
+        this.authorCache = authorCache;
+        this.properties = properties;
     }
 
     public Author createAuthor(AuthorDTO authorDTO){
-        Author author = new Author();
-        author.setName(authorDTO.getName());
-        author.setBirthday(authorDTO.getBirthday());
-        return authorRepository.save(author);
+        return authorRepository.save(newAuthor(authorDTO));
     }
 
     public List<Author> findByAuthorName(String name) {
-        return authorRepository.findByNameIgnoreCaseContaining(name);
+        String namePattern = BookServiceHelper.toContainsPattern(name);
+        return authorRepository.searchByName(namePattern != null ? namePattern : "%");
     }
 
     public Author findAuthorById(long authorId){
         return authorRepository.findById(authorId).orElse(null);
     }
 
+    public boolean existsById(long authorId) {
+        return authorRepository.existsById(authorId);
+    }
+
+    /**
+     * Retrieves one page of authors ordered by id, starting after the given cursor.
+     */
+
+    @Transactional(readOnly = true)
+    public CatalogPage<AuthorView> findAuthorPage(String cursor, Integer limit) {
+        int pageSize = BookServiceHelper.resolvePageSize(properties.getCatalog(), limit);
+        // one extra author only signals that another page exists
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<AuthorView> authors = cursor == null
+                ? authorRepository.findViewPage(fetchLimit)
+                : authorRepository.findViewPageAfter(CatalogCursor.decode(cursor), fetchLimit);
+        boolean hasNext = authors.size() > pageSize;
+        List<AuthorView> page = hasNext ? List.copyOf(authors.subList(0, pageSize)) : authors;
+        if (!hasNext) {
+            return new CatalogPage<>(page, null, false);
+        }
+        return new CatalogPage<>(page, CatalogCursor.encode(page.get(pageSize - 1).id()), true);
+    }
+
+    /**
+     * Retrieves one page of the authors whose normalized name starts with the normalized
+     * {@code name}, ordered by that name and then id. The lookup is a range scan of the
+     * (name_key, id) index, so its cost depends on the page size rather than the table size.
+     */
+
+    @Transactional(readOnly = true)
+    public CatalogPage<AuthorView> findAuthorsByNamePrefix(String name, String cursor, Integer limit) {
+        String prefix = AuthorServiceHelper.toPrefixPattern(name);
+        if (prefix == null) {
+            throw new InvalidInputException("Author name must not be blank");
+        }
+        int pageSize = BookServiceHelper.resolvePageSize(properties.getCatalog(), limit);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<AuthorRow> rows;
+        if (cursor == null) {
+            rows = authorRepository.findByNamePrefix(prefix, fetchLimit);
+        } else {
+            AuthorCursor after = AuthorCursor.decode(cursor);
+            rows = authorRepository.findByNamePrefixAfter(prefix, after.nameKey(), after.id(), fetchLimit);
+        }
+        boolean hasNext = rows.size() > pageSize;
+        List<AuthorRow> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        List<AuthorView> authors = pageRows.stream().map(AuthorRow::toView).toList();
+        if (!hasNext) {
+            return new CatalogPage<>(authors, null, false);
+        }
+        AuthorRow last = pageRows.get(pageSize - 1);
+        return new CatalogPage<>(authors, new AuthorCursor(last.nameKey(), last.id()).encode(), true);
+    }
+
+    /**
+     * Resolves each DTO to an existing author with the same normalized name and birthday,
+     * creating the author only when none exists yet. Cache misses are looked up with one
+     * query and all new authors are inserted as one JDBC batch and read back with another
+     * query, so the number of round trips does not grow with the number of authors. An author
+     * inserted by a concurrent request in the meantime is read back instead of failing.
+     */
     public List<Author> createAuthors(List<AuthorDTO> authorDTOS){
-        List<Author> authors = new ArrayList<>();
+        Map<AuthorKey, AuthorDTO> requested = new LinkedHashMap<>();
+        for (AuthorDTO authorDTO : authorDTOS){
+            requested.putIfAbsent(AuthorKey.of(authorDTO.getName(), authorDTO.getBirthday()), authorDTO);
+        }
+
+        Map<AuthorKey, Author> resolved = new HashMap<>();
+        List<AuthorKey> misses = new ArrayList<>();
+        for (AuthorKey key : requested.keySet()) {
+            Author cached = authorCache.get(key);
+            if (cached != null) {
+                resolved.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            resolveMisses(misses, requested, resolved);
+        }
+
+        List<Author> authors = new ArrayList<>(authorDTOS.size());
         for (AuthorDTO authorDTO : authorDTOS){
-            authors.add(createAuthor(authorDTO));
+            authors.add(resolved.get(AuthorKey.of(authorDTO.getName(), authorDTO.getBirthday())));
         }
         return  authors;
     }
@@ -45,4 +144,48 @@ public class AuthorService {
     public List<Author> findAll(){
         return  authorRepository.findAll();
     }
-}
\ No newline at end of file
+
+    private void resolveMisses(List<AuthorKey> misses, Map<AuthorKey, AuthorDTO> requested, Map<AuthorKey, Author> resolved) {
+        List<String> nameKeys = misses.stream().map(AuthorKey::nameKey).distinct().toList();
+        for (Author existing : authorRepository.findByNameKeyIn(nameKeys)) {
+            AuthorKey key = new AuthorKey(existing.getNameKey(), existing.getBirthday());
+            if (requested.containsKey(key) && !resolved.containsKey(key)) {
+                resolved.put(key, existing);
+                authorCache.put(key, existing);
+            }
+        }
+
+        List<Author> newAuthors = new ArrayList<>();
+        for (AuthorKey key : misses) {
+            if (!resolved.containsKey(key)) {
+                newAuthors.add(newAuthor(requested.get(key)));
+            }
+        }
+        if (newAuthors.isEmpty()) {
+            return;
+        }
+        authorRepository.insertIfAbsent(newAuthors);
+        List<String> newNameKeys = newAuthors.stream().map(Author::getNameKey).distinct().toList();
+        for (Author stored : authorRepository.findByNameKeyIn(newNameKeys)) {
+            AuthorKey key = new AuthorKey(stored.getNameKey(), stored.getBirthday());
+            if (requested.containsKey(key) && !resolved.containsKey(key)) {
+                resolved.put(key, stored);
+                authorCache.putAfterCommit(key, stored);
+            }
+        }
+        for (AuthorKey key : misses) {
+            if (!resolved.containsKey(key)) {
+                // the insert skips a row on any conflict, such as an id already taken outside the sequence
+                throw new IllegalStateException("Author '" + requested.get(key).getName() + "' could not be stored");
+            }
+        }
+    }
+
+    private Author newAuthor(AuthorDTO authorDTO) {
+        Author author = new Author();
+        author.setName(authorDTO.getName());
+        author.setBirthday(authorDTO.getBirthday());
+        author.setNameKey(AuthorServiceHelper.normalizeName(authorDTO.getName()));
+        return author;
+    }
+}
@@ -0,0 +1,297 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
+import com.assignment.bookstore.exception.BookstoreException;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.helper.BookServiceHelper;
+import com.assignment.bookstore.helper.CatalogCsvParser;
+import com.assignment.bookstore.helper.IsbnCodec;
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.ImportFormat;
+import com.assignment.bookstore.model.ImportReport;
+import com.assignment.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Service class for streaming bulk imports into the catalog.
+ * Records are read one line at a time and written in chunks, each chunk in its own transaction.
+ * The next line is read only after the current chunk has been committed. That holds back the
+ * request stream, so a fast publisher is slowed by TCP flow control and the body is never
+ * buffered in memory.
+ */
+
+@Service
+@Slf4j
+public class BookImportService {
+
+    private final BookRepository bookRepository;
+    private final AuthorService authorService;
+    private final BookCache bookCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader bookReader;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookstoreProperties properties;
+
+    public BookImportService(BookRepository bookRepository, AuthorService authorService, BookCache bookCache,
+                             PlatformTransactionManager transactionManager, EntityManager entityManager,
+                             Validator validator, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             BookstoreProperties properties) {
+        this.bookRepository = bookRepository;
+        this.authorService = authorService;
+        this.bookCache = bookCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.bookReader = objectMapper.readerFor(BookDTO.class);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+
+    /**
+     * Imports every record of the stream and reports the rows that could not be imported.
+     */
+
+    public ImportReport importCatalog(Reader source, ImportFormat format) {
+        BookstoreProperties.BulkImport settings = properties.getBulkImport();
+        ImportReport report = new ImportReport(settings.getMaxReportedErrors());
+        List<ImportRow> chunk = new ArrayList<>(settings.getChunkSize());
+        log.info("Starting {} catalog import with chunk size {}", format, settings.getChunkSize());
+
+        try (BufferedReader reader = new BufferedReader(source)) {
+            Map<String, Integer> csvColumns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && csvColumns == null) {
+                    csvColumns = CatalogCsvParser.readHeader(line);
+                    continue;
+                }
+                report.recordReceived();
+                ImportRow row = parseRow(lineNumber, line, format, csvColumns, report);
+                if (row == null) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= settings.getChunkSize()) {
+                    writeChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import stream", e);
+        }
+
+        log.info("Finished catalog import: {} received, {} imported, {} failed",
+                report.getReceived(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+
+    /**
+     * Parses and validates a single record, recording a row error instead of failing the import.
+     */
+
+    private ImportRow parseRow(long lineNumber, String line, ImportFormat format,
+                               Map<String, Integer> csvColumns, ImportReport report) {
+        // a line such as null, [] or 42 is valid JSON but no record; null would even bind to a null DTO
+        if (format == ImportFormat.NDJSON && !isJsonObject(line)) {
+            report.recordFailure(lineNumber, null, "Record must be a JSON object");
+            return null;
+        }
+        BookDTO bookDTO;
+        try {
+            bookDTO = format == ImportFormat.CSV
+                    ? CatalogCsvParser.toBookDTO(line, csvColumns)
+                    : bookReader.readValue(line);
+        } catch (InvalidInputException e) {
+            report.recordFailure(lineNumber, null, e.getMessage());
+            return null;
+        } catch (JsonProcessingException e) {
+            report.recordFailure(lineNumber, null, "Malformed JSON record");
+            return null;
+        }
+
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(bookDTO);
+        if (!violations.isEmpty()) {
+            report.recordFailure(lineNumber, bookDTO.getIsbn(), violations.iterator().next().getMessage());
+            return null;
+        }
+        try {
+            BookServiceHelper.validateRequestDTO(bookDTO);
+        } catch (InvalidInputException e) {
+            report.recordFailure(lineNumber, bookDTO.getIsbn(), e.getMessage());
+            return null;
+        }
+        return new ImportRow(lineNumber, IsbnCodec.toKey(bookDTO.getIsbn()), bookDTO);
+    }
+
+
+    private static boolean isJsonObject(String line) {
+        String record = line.strip();
+        return record.startsWith("{");
+    }
+
+
+    /**
+     * Writes a chunk in one transaction. When the chunk fails because of its data, its rows are
+     * retried one by one so the report can point at the offending rows. Any other failure, such
+     * as an unreachable database or an exhausted pool, aborts the import; the chunks committed
+     * so far stay imported. Results reach the report only once their transaction has committed.
+     */
+
+    private void writeChunk(List<ImportRow> chunk, ImportReport report) {
+        try {
+            apply(transactionTemplate.execute(status -> insertRows(chunk)), report);
+        } catch (RuntimeException e) {
+            if (!isDataError(e)) {
+                log.error("Import chunk of {} rows failed, aborting after {} imported rows", chunk.size(), report.getImported(), e);
+                throw e;
+            }
+            log.warn("Import chunk of {} rows failed, retrying rows individually", chunk.size(), e);
+            for (ImportRow row : chunk) {
+                try {
+                    apply(transactionTemplate.execute(status -> insertRows(List.of(row))), report);
+                } catch (RuntimeException rowFailure) {
+                    if (!isDataError(rowFailure)) {
+                        log.error("Import row {} failed, aborting after {} imported rows", row.line(), report.getImported(), rowFailure);
+                        throw rowFailure;
+                    }
+                    String reason = describeFailure(row, rowFailure);
+                    log.warn("Import row {} with ISBN {} could not be stored: {}", row.line(), row.book().getIsbn(), reason, rowFailure);
+                    report.recordFailure(row.line(), row.book().getIsbn(), reason);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the failure lies in the rows themselves, so that storing them one by one can tell
+     * the offending rows apart.
+     */
+    private static boolean isDataError(RuntimeException failure) {
+        return failure instanceof BookstoreException
+                || failure instanceof DataIntegrityViolationException
+                || failure instanceof jakarta.validation.ConstraintViolationException
+                || findCause(failure, ConstraintViolationException.class) != null;
+    }
+
+    /**
+     * Turns the failure of a single row into a report message. Constraint violations are named
+     * after the database constraint, which tells a concurrently inserted ISBN apart from other
+     * conflicts.
+     */
+    private static String describeFailure(ImportRow row, RuntimeException failure) {
+        if (failure instanceof BookstoreException) {
+            return failure.getMessage();
+        }
+        ConstraintViolationException violation = findCause(failure, ConstraintViolationException.class);
+        String constraint = violation == null ? null : violation.getConstraintName();
+        if (constraint != null) {
+            String name = constraint.toLowerCase(Locale.ROOT);
+            if (name.contains("pk_books")) {
+                return "Book with ISBN " + row.book().getIsbn() + " already exists.";
+            }
+            return "Violates database constraint " + constraint;
+        }
+        if (violation != null || failure instanceof DataIntegrityViolationException) {
+            return "Violates a database constraint";
+        }
+        return "Could not be stored";
+    }
+
+    private static <T extends Throwable> T findCause(Throwable failure, Class<T> type) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+
+    private ChunkResult insertRows(List<ImportRow> rows) {
+        Set<Long> existing = new HashSet<>(bookRepository.findExistingIsbns(
+                rows.stream().map(ImportRow::isbn).toList()));
+
+        List<ImportRow> accepted = new ArrayList<>(rows.size());
+        List<ImportRow> duplicates = new ArrayList<>();
+        List<AuthorDTO> authorDTOs = new ArrayList<>();
+        for (ImportRow row : rows) {
+            // ISBNs are compared in canonical form, so differently written duplicates are caught too
+            if (!existing.add(row.isbn())) {
+                duplicates.add(row);
+                continue;
+            }
+            accepted.add(row);
+            authorDTOs.addAll(row.book().getAuthors());
+        }
+
+        List<Author> authors = authorService.createAuthors(authorDTOs);
+        List<Book> books = new ArrayList<>(accepted.size());
+        int offset = 0;
+        for (ImportRow row : accepted) {
+            int count = row.book().getAuthors().size();
+            books.add(BookServiceHelper.createBookFromDTO(row.book(), authors.subList(offset, offset + count)));
+            offset += count;
+        }
+        bookRepository.saveAll(books);
+        // imported ISBNs may have been cached as unknown
+        books.forEach(book -> bookCache.invalidate(book.getIsbn()));
+        books.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(BookSnapshot.of(book))));
+
+        // keep the persistence context from growing across chunks of the same request
+        entityManager.flush();
+        entityManager.clear();
+        return new ChunkResult(books.size(), duplicates);
+    }
+
+    private void apply(ChunkResult result, ImportReport report) {
+        report.recordImported(result.imported());
+        for (ImportRow row : result.duplicates()) {
+            report.recordFailure(row.line(), row.book().getIsbn(), "Book with ISBN " + row.book().getIsbn() + " already exists.");
+        }
+    }
+
+    private record ImportRow(long line, long isbn, BookDTO book) {}
+
+    private record ChunkResult(int imported, List<ImportRow> duplicates) {}
+}
@@ -1,36 +1,85 @@
 
 package com.assignment.bookstore.service;
 
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
 import com.assignment.bookstore.entity.Author;
 import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
 import com.assignment.bookstore.exception.EntityExistsException;
 import com.assignment.bookstore.exception.BookNotFoundException;
 import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.exception.AuthorNotFoundException;
+import com.assignment.bookstore.exception.PreconditionFailedException;
 import com.assignment.bookstore.model.AuthorDTO;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookLookup;
+import com.assignment.bookstore.model.BookSearchCriteria;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.SearchPage;
 import com.assignment.bookstore.repository.BookRepository;
+import com.assignment.bookstore.helper.BookETags;
 import com.assignment.bookstore.helper.BookServiceHelper;
+import com.assignment.bookstore.helper.CatalogCursor;
+import com.assignment.bookstore.helper.IsbnCodec;
+import com.assignment.bookstore.search.BookSearchIndex;
+import com.assignment.bookstore.search.CatalogFacetIndex;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 
 /**
  * Service class for managing book-related operations.
+ * Every public operation is timed as {@code bookstore.book.service}, tagged by method and exception.
  */
 
 @Service
 @Slf4j
+@Timed(value = "bookstore.book.service", description = "Latency of BookService operations")
 public class BookService {
 
+    private static final int VIEW_BATCH_SIZE = 1000;
+
+    // Per-request read logs have their own logger so logback-spring.xml can sample them.
+    private static final Logger READ_LOG = LoggerFactory.getLogger(BookService.class.getName() + ".reads");
+
     private final BookRepository bookRepository;
     private final AuthorService authorService;
-
-    public BookService(BookRepository bookRepository, AuthorService authorService) {
+    private final BookCache bookCache;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookstoreProperties properties;
+
+    public BookService(BookRepository bookRepository, AuthorService authorService, BookCache bookCache,
+                       BookSearchIndex bookSearchIndex, CatalogFacetIndex catalogFacetIndex,
+                       ApplicationEventPublisher eventPublisher, BookstoreProperties properties) {
         this.bookRepository = bookRepository;
         this.authorService = authorService;
+        this.bookCache = bookCache;
+        this.bookSearchIndex = bookSearchIndex;
+        this.catalogFacetIndex = catalogFacetIndex;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
     }
 
 
@@ -39,28 +88,42 @@ public class BookService {
      */
 
     @Transactional
-    public Book addBook(BookDTO bookDTO) {
+    public BookView addBook(BookDTO bookDTO) {
         try {
             log.info("Adding new book with ISBN: {}", bookDTO.getIsbn());
             BookServiceHelper.validateRequestDTO(bookDTO);
-            verifyIsbnDoesNotExist(bookDTO.getIsbn());
+            long isbn = IsbnCodec.parse(bookDTO.getIsbn());
+            verifyIsbnDoesNotExist(isbn);
             List<Author> authors = authorService.createAuthors(bookDTO.getAuthors());
             Book book = BookServiceHelper.createBookFromDTO(bookDTO, authors);
-            return bookRepository.save(book);
+            bookCache.invalidate(isbn);
+            Book saved = bookRepository.save(book);
+            eventPublisher.publishEvent(BookChangedEvent.created(BookSnapshot.of(book)));
+            return BookView.of(saved);
         } catch (Exception e) {
             log.error("Error adding book ", e);
             throw e;
         }
     }
 
+    /**
+     * Updates a book. A non-null {@code ifMatch} must match the book's current ETag.
+     */
+
     @Transactional
-    public Book updateBook(String isbn, BookUpdateDTO bookUpdateDTO) {
+    public BookView updateBook(String isbn, BookUpdateDTO bookUpdateDTO, String ifMatch) {
         try {
             log.info("Updating book with ISBN: {}", isbn);
-            Book existingBook = verifyAndGetBook(isbn);
+            Book existingBook = verifyAndGetBook(IsbnCodec.parse(isbn));
+            verifyETagMatches(existingBook, ifMatch);
+            BookSnapshot before = BookSnapshot.of(existingBook);
             List<Author> authors = getAuthorsForUpdate(bookUpdateDTO.getAuthors());
             BookServiceHelper.updateBookFromDTO(existingBook, bookUpdateDTO, authors);
-            return bookRepository.save(existingBook);
+            bookCache.invalidate(existingBook.getIsbn());
+            // flushed here so the returned view carries the incremented version
+            Book saved = bookRepository.saveAndFlush(existingBook);
+            eventPublisher.publishEvent(BookChangedEvent.updated(before, BookSnapshot.of(existingBook)));
+            return BookView.of(saved);
         }
         catch (Exception e) {
             log.error("Error updating book ", e);
@@ -70,15 +133,18 @@ public class BookService {
 
 
     /**
-     * Deletes a book by its ISBN.
+     * Deletes a book by its ISBN. A non-null {@code ifMatch} must match the book's current ETag.
      */
 
     @Transactional
-    public void deleteBook(String isbn) {
+    public void deleteBook(String isbn, String ifMatch) {
         try {
             log.info("Deleting book with ISBN: {}", isbn);
-            verifyAndGetBook(isbn);
-            bookRepository.deleteById(isbn);
+            Book book = verifyAndGetBook(IsbnCodec.parse(isbn));
+            verifyETagMatches(book, ifMatch);
+            bookCache.invalidate(book.getIsbn());
+            bookRepository.deleteById(book.getIsbn());
+            eventPublisher.publishEvent(BookChangedEvent.deleted(BookSnapshot.of(book)));
         }
         catch (Exception e) {
             log.error("Error deleting book ", e);
@@ -88,26 +154,53 @@ public class BookService {
 
 
     /**
-     * Finds a book by its ISBN.
+     * Finds a book by its ISBN, reading through the ISBN cache.
      */
 
     @Transactional(readOnly = true)
-    public Book findBookByIsbn(String isbn) {
-        log.info("Finding book with ISBN: {}", isbn);
-        return bookRepository.findById(isbn)
+    public BookView findBookByIsbn(String isbn) {
+        READ_LOG.info("Finding book with ISBN: {}", isbn);
+        return bookCache.get(IsbnCodec.parse(isbn), key -> loadViews(List.of(key)).stream().findFirst())
                 .orElseThrow(() -> new BookNotFoundException("Book with ISBN: " + isbn + " not found"));
     }
 
 
     /**
-     * Finds books by title and/or author name.
+     * Looks up several books at once, reading through the ISBN cache. All misses are loaded
+     * together with one query per {@value #VIEW_BATCH_SIZE} ISBNs, authors included, and
+     * unknown ISBNs are remembered as missing like single lookups.
      */
 
     @Transactional(readOnly = true)
-    public List<Book> findBooks(String title, String author) {
-        log.info("Searching for books with title: {} and author: {}", title, author);
-        List<Book> books = bookRepository.findByTitleContainingIgnoreCaseAndAuthorsNameContainingIgnoreCase(title, author);
-        if (books.isEmpty()) {
+    public BookLookup findBooksByIsbns(List<String> isbns) {
+        int maxLookupSize = properties.getCatalog().getMaxLookupSize();
+        if (isbns.size() > maxLookupSize) {
+            throw new InvalidInputException("At most " + maxLookupSize + " ISBNs can be looked up at once");
+        }
+        READ_LOG.info("Finding {} books by ISBN", isbns.size());
+        Set<Long> keys = new LinkedHashSet<>();
+        isbns.forEach(isbn -> keys.add(IsbnCodec.parse(isbn)));
+        Map<Long, Optional<BookView>> books = lookupViews(keys);
+        List<BookView> found = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (Long key : keys) {
+            books.get(key).ifPresentOrElse(found::add, () -> missing.add(IsbnCodec.format(key)));
+        }
+        return new BookLookup(found, missing);
+    }
+
+
+    /**
+     * Finds books by title and/or author name. A blank criterion does not filter.
+     * Served from the ranked search index once it is built, otherwise from the database.
+     * No matches are reported as {@link BookNotFoundException} unless configured to return an empty list.
+     */
+
+    @Transactional(readOnly = true)
+    public List<BookView> findBooks(String title, String author) {
+        READ_LOG.info("Searching for books with title: {} and author: {}", title, author);
+        List<BookView> books = findBookViews(findBookIsbns(title, author));
+        if (books.isEmpty() && properties.getSearch().isNotFoundWhenEmpty()) {
             throw new BookNotFoundException("No books found with title containing '" + title + "' and author containing '" + author + "'");
         }
         return books;
@@ -115,13 +208,110 @@ public class BookService {
 
 
     /**
-      * Retrieves all books in the system.
+     * Resolves the ISBNs matching a title and/or author search, best match first when
+     * answered from the search index.
+     */
+
+    @Transactional(readOnly = true)
+    public List<Long> findBookIsbns(String title, String author) {
+        return bookSearchIndex.isReady()
+                ? bookSearchIndex.search(title, author)
+                : searchDatabase(title, author);
+    }
+
+
+    /**
+     * Returns the views of the given books in the order of the ISBNs, reading through the ISBN
+     * cache. Unknown ISBNs are skipped.
+     */
+
+    @Transactional(readOnly = true)
+    public List<BookView> findBookViews(List<Long> isbns) {
+        return isbns.isEmpty() ? List.of() : cachedViews(isbns);
+    }
+
+
+    /**
+     * Retrieves one page of the catalog ordered by ISBN, starting after the given cursor.
+     */
+
+    @Transactional(readOnly = true)
+    public CatalogPage<BookView> findCatalogPage(String cursor, Integer limit) {
+        int pageSize = BookServiceHelper.resolvePageSize(properties.getCatalog(), limit);
+        READ_LOG.info("Fetching catalog page of size {} after cursor: {}", pageSize, cursor);
+        // one extra ISBN only signals that another page exists
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Long> isbns = cursor == null
+                ? bookRepository.findIsbnPage(fetchLimit)
+                : bookRepository.findIsbnPageAfter(CatalogCursor.decode(cursor), fetchLimit);
+        boolean hasNext = isbns.size() > pageSize;
+        List<Long> pageIsbns = hasNext ? isbns.subList(0, pageSize) : isbns;
+        List<BookView> books = pageIsbns.isEmpty() ? List.of() : cachedViews(pageIsbns);
+        return BookServiceHelper.toCatalogPage(books, pageIsbns, hasNext);
+    }
+
+
+    /**
+     * Retrieves one page of an author's books ordered by ISBN, starting after the given cursor.
+     * The ISBNs come from the (author_id, book_isbn) index alone; only an empty first page
+     * checks whether the author exists at all.
+     */
+
+    @Transactional(readOnly = true)
+    public CatalogPage<BookView> findBooksByAuthor(long authorId, String cursor, Integer limit) {
+        int pageSize = BookServiceHelper.resolvePageSize(properties.getCatalog(), limit);
+        READ_LOG.info("Fetching books of author {} of size {} after cursor: {}", authorId, pageSize, cursor);
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Long> isbns = cursor == null
+                ? bookRepository.findIsbnPageByAuthor(authorId, fetchLimit)
+                : bookRepository.findIsbnPageByAuthorAfter(authorId, CatalogCursor.decode(cursor), fetchLimit);
+        if (isbns.isEmpty() && cursor == null && !authorService.existsById(authorId)) {
+            throw new AuthorNotFoundException("Author not found with ID: " + authorId);
+        }
+        boolean hasNext = isbns.size() > pageSize;
+        List<Long> pageIsbns = hasNext ? isbns.subList(0, pageSize) : isbns;
+        List<BookView> books = pageIsbns.isEmpty() ? List.of() : cachedViews(pageIsbns);
+        return BookServiceHelper.toCatalogPage(books, pageIsbns, hasNext);
+    }
+
+
+    /**
+     * Filters the catalog by the supplied criteria, sorted by {@code sort} with the ISBN breaking
+     * ties. One row past the page tells whether another page exists, so no COUNT runs unless
+     * {@code includeTotal} is set, and not even then when the page turns out to be the last one.
+     */
+
+    @Transactional(readOnly = true)
+    public SearchPage<BookView> searchCatalog(BookSearchCriteria criteria, String sort, Integer page, Integer limit,
+                                              boolean includeTotal) {
+        BookServiceHelper.validateSearchCriteria(criteria);
+        Sort order = BookServiceHelper.toSearchSort(sort);
+        int pageSize = BookServiceHelper.resolvePageSize(properties.getCatalog(), limit);
+        int pageNumber = page == null ? 0 : page;
+        int offset = BookServiceHelper.toOffset(pageNumber, pageSize);
+        READ_LOG.info("Filtering catalog by {} sorted by {}, page {} of size {}", criteria, order, pageNumber, pageSize);
+        List<Long> isbns = bookRepository.findMatchingIsbns(criteria, order, offset, pageSize + 1);
+        boolean hasNext = isbns.size() > pageSize;
+        List<Long> pageIsbns = hasNext ? isbns.subList(0, pageSize) : isbns;
+        Long totalCount = null;
+        if (includeTotal) {
+            // a non-empty last page already tells the total
+            totalCount = !hasNext && (!pageIsbns.isEmpty() || offset == 0)
+                    ? offset + pageIsbns.size()
+                    : bookRepository.countMatching(criteria);
+        }
+        return new SearchPage<>(findBookViews(pageIsbns), pageNumber, pageSize, hasNext, totalCount);
+    }
+
+
+    /**
+      * Retrieves all books in the system. Only meant for administrative full dumps.
       */
 
     @Transactional(readOnly = true)
-    public List<Book> findAllBooks() {
-        log.info("Fetching all books");
-        List<Book> books = bookRepository.findAll();
+    public List<BookView> findAllBooks() {
+        READ_LOG.info("Fetching all books");
+        List<BookView> books = BookServiceHelper.toBookViews(bookRepository.findAllViewRows());
         if (books.isEmpty()) {
             throw new BookNotFoundException("No books found in the system");
         }
@@ -129,11 +319,88 @@ public class BookService {
     }
 
 
+    /**
+     * Returns catalog-wide counts by genre, price range and publication year. Served from the
+     * counters maintained by {@link CatalogFacetIndex} once they are built, otherwise grouped
+     * by the database. Not transactional, so the common path needs no connection.
+     */
+
+    public CatalogFacets findFacets() {
+        READ_LOG.info("Fetching catalog facets");
+        return catalogFacetIndex.isReady()
+                ? catalogFacetIndex.facets()
+                : catalogFacetIndex.summarize(bookRepository.countFacetGroups());
+    }
+
+
+    /**
+     * Runs the search as case-insensitive substring matches in the database.
+     */
+
+    private List<Long> searchDatabase(String title, String author) {
+        String titlePattern = BookServiceHelper.toContainsPattern(title);
+        String authorPattern = BookServiceHelper.toContainsPattern(author);
+        if (titlePattern != null && authorPattern != null) {
+            return bookRepository.searchByTitleAndAuthor(titlePattern, authorPattern);
+        } else if (titlePattern != null) {
+            return bookRepository.searchByTitle(titlePattern);
+        } else if (authorPattern != null) {
+            return bookRepository.searchByAuthor(authorPattern);
+        }
+        return List.of();
+    }
+
+
+    /**
+     * Returns the views of the given books in the order of the ISBNs from the ISBN cache,
+     * skipping unknown ISBNs. Only the misses are loaded from the database.
+     */
+
+    private List<BookView> cachedViews(List<Long> isbns) {
+        Map<Long, Optional<BookView>> books = lookupViews(isbns);
+        List<BookView> views = new ArrayList<>(isbns.size());
+        for (Long isbn : isbns) {
+            books.get(isbn).ifPresent(views::add);
+        }
+        return views;
+    }
+
+
+    /**
+     * Returns the cached lookups of the given books, loading all misses together. ISBNs the
+     * database does not know are remembered as missing like single lookups.
+     */
+
+    private Map<Long, Optional<BookView>> lookupViews(Collection<Long> isbns) {
+        return bookCache.getAll(isbns, misses -> {
+            Map<Long, Optional<BookView>> loaded = new HashMap<>();
+            misses.forEach(isbn -> loaded.put(isbn, Optional.empty()));
+            loadViews(List.copyOf(misses)).forEach(book -> loaded.put(IsbnCodec.parse(book.isbn()), Optional.of(book)));
+            return loaded;
+        });
+    }
+
+
+    /**
+     * Loads the views of the given books with one query per {@value #VIEW_BATCH_SIZE} ISBNs,
+     * keeping large search results below the driver's bind parameter limit.
+     */
+
+    private List<BookView> loadViews(List<Long> isbns) {
+        List<BookView> views = new ArrayList<>(isbns.size());
+        for (int from = 0; from < isbns.size(); from += VIEW_BATCH_SIZE) {
+            List<Long> batch = isbns.subList(from, Math.min(from + VIEW_BATCH_SIZE, isbns.size()));
+            views.addAll(BookServiceHelper.toBookViews(bookRepository.findViewRowsByIsbnIn(batch)));
+        }
+        return views;
+    }
+
+
     /**
      * Verifies if an ISBN already exists in the system.
      */
 
-    private void verifyIsbnDoesNotExist(String isbn) {
+    private void verifyIsbnDoesNotExist(long isbn) {
         if (bookRepository.findById(isbn).isPresent()) {
             log.error("Book with ISBN {} already exists", isbn);
             throw new EntityExistsException("Book with ISBN " + isbn + " already exists.");
@@ -141,6 +408,18 @@ public class BookService {
     }
 
 
+    /**
+     * Verifies that the client's {@code If-Match} ETag still matches the stored book.
+     */
+
+    private void verifyETagMatches(Book book, String ifMatch) {
+        if (!BookETags.matches(ifMatch, book.getVersion())) {
+            log.error("Book with ISBN {} changed, If-Match {} does not match version {}", book.getIsbn(), ifMatch, book.getVersion());
+            throw new PreconditionFailedException("Book with ISBN " + book.getIsbn() + " has been modified. Current ETag is " + BookETags.of(book.getVersion()));
+        }
+    }
+
+
     /**
      * Retrieves an author by name.
      */
@@ -154,7 +433,7 @@ public class BookService {
      * Verifies the existence of a book by ISBN and returns it.
      */
 
-    private Book verifyAndGetBook(String isbn) {
+    private Book verifyAndGetBook(long isbn) {
         return bookRepository.findById(isbn)
                 .orElseThrow(() -> new BookNotFoundException("Book with ISBN: " + isbn + " not found"));
     }
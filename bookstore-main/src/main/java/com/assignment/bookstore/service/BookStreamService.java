@@ -0,0 +1,97 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.helper.CatalogCursor;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+
+/**
+ * Service class for streaming read results as NDJSON, one book per line.
+ * Results are written page by page as they are read. Every page is loaded in its own short
+ * read-only transaction and written after it has committed, so a slow client holds a request
+ * thread but never a database connection.
+ */
+
+@Service
+@Slf4j
+public class BookStreamService {
+
+    private static final byte NEWLINE = '\n';
+
+    private final BookService bookService;
+    private final ObjectWriter bookWriter;
+    private final BookstoreProperties properties;
+
+    public BookStreamService(BookService bookService, ObjectMapper objectMapper, BookstoreProperties properties) {
+        this.bookService = bookService;
+        this.bookWriter = objectMapper.writerFor(BookView.class);
+        this.properties = properties;
+    }
+
+
+    /**
+     * Streams the catalog ordered by ISBN, starting after the given cursor.
+     * The cursor is checked before the response starts so a bad one is still answered with 400.
+     */
+
+    public StreamingResponseBody streamCatalog(String cursor) {
+        if (cursor != null) {
+            CatalogCursor.decode(cursor);
+        }
+        int pageSize = properties.getCatalog().getMaxPageSize();
+        return out -> {
+            log.info("Streaming catalog after cursor: {}", cursor);
+            String next = cursor;
+            CatalogPage<BookView> page;
+            do {
+                page = bookService.findCatalogPage(next, pageSize);
+                write(page.getItems(), out);
+                next = page.getNextCursor();
+            } while (page.isHasNext());
+        };
+    }
+
+
+    /**
+     * Streams the books matching a title and/or author search in the same order as the list endpoint.
+     * The matching ISBNs are resolved up front so an empty result can still be answered with 404.
+     */
+
+    public StreamingResponseBody streamSearch(String title, String author) {
+        List<Long> isbns = bookService.findBookIsbns(title, author);
+        if (isbns.isEmpty() && properties.getSearch().isNotFoundWhenEmpty()) {
+            throw new BookNotFoundException("No books found with title containing '" + title + "' and author containing '" + author + "'");
+        }
+        int pageSize = properties.getCatalog().getMaxPageSize();
+        return out -> {
+            log.info("Streaming {} search results", isbns.size());
+            for (int from = 0; from < isbns.size(); from += pageSize) {
+                write(bookService.findBookViews(isbns.subList(from, Math.min(from + pageSize, isbns.size()))), out);
+            }
+        };
+    }
+
+
+    /**
+     * Writes one line per book and flushes, so the client sees each page as soon as it is read.
+     */
+
+    private void write(List<BookView> books, OutputStream out) throws IOException {
+        for (BookView book : books) {
+            out.write(bookWriter.writeValueAsBytes(book));
+            out.write(NEWLINE);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,70 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.exception.UnauthorizedException;
+import com.assignment.bookstore.model.TokenResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Service class for issuing signed access tokens.
+ * Credentials are checked once by the password encoder when the token is issued; afterwards the
+ * token is verified locally from its signature, with no user store lookup.
+ */
+
+@Service
+@Slf4j
+public class TokenService {
+
+    public static final String ISSUER = "bookstore";
+    public static final String ROLES_CLAIM = "roles";
+
+    private final JwtEncoder jwtEncoder;
+    private final BookstoreProperties properties;
+
+    public TokenService(JwtEncoder jwtEncoder, BookstoreProperties properties) {
+        this.jwtEncoder = jwtEncoder;
+        this.properties = properties;
+    }
+
+
+    /**
+     * Issues a token carrying the caller's name and authorities. Only a password login can be
+     * exchanged, so a token cannot be used to extend itself.
+     */
+
+    public TokenResponse issueToken(Authentication authentication) {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)) {
+            throw new UnauthorizedException("Access tokens can only be issued for username and password credentials");
+        }
+        Duration ttl = properties.getAuth().getTokenTtl();
+        Instant now = Instant.now();
+        List<String> roles = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(authentication.getName())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim(ROLES_CLAIM, roles)
+                .build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        log.info("Issued access token for {} valid for {}", authentication.getName(), ttl);
+        return new TokenResponse(token, "Bearer", ttl.toSeconds());
+    }
+}
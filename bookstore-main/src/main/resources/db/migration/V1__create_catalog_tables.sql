@@ -0,0 +1,32 @@
+-- Tables for the Book and Author entities, matching what Hibernate validates against.
+
+CREATE SEQUENCE authors_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE authors (
+    id       bigint       NOT NULL,
+    name     varchar(255),
+    birthday date,
+    name_key varchar(255),
+    CONSTRAINT pk_authors PRIMARY KEY (id),
+    -- also serves AuthorRepository.findByNameKeyIn through its leading column
+    CONSTRAINT uk_authors_name_key_birthday UNIQUE (name_key, birthday)
+);
+
+CREATE TABLE books (
+    isbn    bigint           NOT NULL,
+    title   varchar(255),
+    year    integer,
+    price   double precision,
+    genre   varchar(255),
+    version bigint,
+    CONSTRAINT pk_books PRIMARY KEY (isbn)
+);
+
+CREATE TABLE book_authors (
+    book_isbn bigint NOT NULL,
+    author_id bigint NOT NULL,
+    -- loads a book's authors and deletes its links by the leading book_isbn
+    CONSTRAINT pk_book_authors PRIMARY KEY (book_isbn, author_id),
+    CONSTRAINT fk_book_authors_book FOREIGN KEY (book_isbn) REFERENCES books (isbn),
+    CONSTRAINT fk_book_authors_author FOREIGN KEY (author_id) REFERENCES authors (id)
+);
@@ -0,0 +1,14 @@
+-- Secondary indexes for the BookRepository and AuthorRepository query shapes. IF NOT EXISTS
+-- keeps this applicable to databases that got these indexes before migrations existed.
+
+-- Substring search compares lower(title) and lower(name) against a LIKE '%term%' pattern,
+-- which a B-tree cannot serve; trigram GIN indexes can.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_authors_name_trgm ON authors USING gin (lower(name) gin_trgm_ops);
+
+-- Author search joins from matching authors to their books, and deleting or checking an
+-- author's links must not scan the whole link table.
+CREATE INDEX IF NOT EXISTS idx_book_authors_author_id ON book_authors (author_id);
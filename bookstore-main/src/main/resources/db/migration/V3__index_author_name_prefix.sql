@@ -0,0 +1,42 @@
+-- Author lookups match a prefix of name_key, the normalized, lower-cased name, and page through
+-- the matches in (name_key, id) order. Under the "C" collation a plain B-tree serves both the
+-- LIKE 'prefix%' range and that order, whatever the database's default collation is. name_key
+-- is only compared for equality and by prefix, so a bytewise order changes no results.
+ALTER TABLE authors ALTER COLUMN name_key TYPE varchar(255) COLLATE "C";
+
+CREATE INDEX idx_authors_name_key_id ON authors (name_key, id);
+
+-- Authors written before name_key existed get the key AuthorServiceHelper.normalizeName would
+-- compute. Writes used to store a new row per author each time, so rows that share that key and
+-- a birthday are first merged into the oldest one, moving their book links over, and the unique
+-- constraint then holds for every keyed row. Authors without a birthday are merged by V5.
+CREATE TEMPORARY TABLE author_keys ON COMMIT DROP AS
+SELECT id, birthday,
+       coalesce(name_key, lower(btrim(regexp_replace(normalize(name, NFKC), '\s+', ' ', 'g')))) AS name_key
+FROM authors
+WHERE name IS NOT NULL;
+
+CREATE TEMPORARY TABLE author_key_duplicates ON COMMIT DROP AS
+SELECT a.id, k.keep_id
+FROM author_keys a
+JOIN (SELECT name_key, birthday, min(id) AS keep_id
+      FROM author_keys
+      WHERE birthday IS NOT NULL
+      GROUP BY name_key, birthday
+      HAVING count(*) > 1) k ON k.name_key = a.name_key AND k.birthday = a.birthday
+WHERE a.id <> k.keep_id;
+
+INSERT INTO book_authors (book_isbn, author_id)
+SELECT ba.book_isbn, d.keep_id
+FROM book_authors ba
+JOIN author_key_duplicates d ON d.id = ba.author_id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM book_authors WHERE author_id IN (SELECT id FROM author_key_duplicates);
+
+DELETE FROM authors WHERE id IN (SELECT id FROM author_key_duplicates);
+
+UPDATE authors a
+SET name_key = k.name_key
+FROM author_keys k
+WHERE a.id = k.id AND a.name_key IS NULL;
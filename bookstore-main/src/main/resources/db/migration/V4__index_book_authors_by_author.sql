@@ -0,0 +1,7 @@
+-- Books by author page through one author's links in book_isbn order. With both columns in
+-- the key, each page is an index-only range scan that reads no book_authors heap pages, and
+-- the cursor continues the scan where the previous page stopped. The author_id index from
+-- V2 is a prefix of this one and would only slow down writes to the link table.
+CREATE INDEX idx_book_authors_author_isbn ON book_authors (author_id, book_isbn);
+
+DROP INDEX IF EXISTS idx_book_authors_author_id;
@@ -0,0 +1,30 @@
+-- uk_authors_name_key_birthday treats NULL birthdays as distinct, so an author without a birthday
+-- could be stored once per request that created it. A partial unique index makes the name key
+-- alone unique among those authors. It also gives AuthorInsertRepository's ON CONFLICT DO NOTHING
+-- a conflict to detect. V3 keyed every author with a name, so only authors without a name stay
+-- distinct.
+
+-- Merge the duplicates written so far into the oldest row, moving their book links over first.
+-- Authors with a birthday were merged by V3 and the unique constraint has kept them so since;
+-- they are grouped here as well so that no author that shares a name key and birthday is left.
+CREATE TEMPORARY TABLE author_duplicates ON COMMIT DROP AS
+SELECT a.id, k.keep_id
+FROM authors a
+JOIN (SELECT name_key, birthday, min(id) AS keep_id
+      FROM authors
+      WHERE name_key IS NOT NULL
+      GROUP BY name_key, birthday
+      HAVING count(*) > 1) k ON k.name_key = a.name_key AND k.birthday IS NOT DISTINCT FROM a.birthday
+WHERE a.id <> k.keep_id;
+
+INSERT INTO book_authors (book_isbn, author_id)
+SELECT ba.book_isbn, d.keep_id
+FROM book_authors ba
+JOIN author_duplicates d ON d.id = ba.author_id
+ON CONFLICT DO NOTHING;
+
+DELETE FROM book_authors WHERE author_id IN (SELECT id FROM author_duplicates);
+
+DELETE FROM authors WHERE id IN (SELECT id FROM author_duplicates);
+
+CREATE UNIQUE INDEX uk_authors_name_key_no_birthday ON authors (name_key) WHERE birthday IS NULL;
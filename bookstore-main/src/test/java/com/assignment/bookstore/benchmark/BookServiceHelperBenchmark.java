@@ -0,0 +1,81 @@
+package com.assignment.bookstore.benchmark;
+
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.helper.BookServiceHelper;
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookUpdateDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request CPU cost of the validation and mapping helpers used by every write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceHelperBenchmark {
+
+    private static final int AUTHORS = 10;
+
+    private BookDTO bookDTO;
+    private BookUpdateDTO bookUpdateDTO;
+    private List<Author> authors;
+    private Set<Author> bookAuthors;
+    private List<Author> searchAuthors;
+    private Book book;
+
+    @Setup
+    public void setUp() {
+        authors = new ArrayList<>();
+        List<AuthorDTO> authorDTOs = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            Author author = new Author();
+            author.setId((long) i);
+            author.setName("Author " + i);
+            authors.add(author);
+            authorDTOs.add(new AuthorDTO("Author " + i, LocalDate.of(1970, 1, 1 + i)));
+        }
+        bookDTO = new BookDTO("978-3-16-148410-0", "Benchmark Title", 2020, 19.99, "Fiction", authorDTOs);
+        bookUpdateDTO = new BookUpdateDTO();
+        bookUpdateDTO.setTitle("Updated Title");
+        bookUpdateDTO.setYear(2021);
+        bookUpdateDTO.setPrice(24.99);
+        bookUpdateDTO.setGenre("Drama");
+        bookAuthors = new HashSet<>(authors);
+        searchAuthors = List.of(authors.get(AUTHORS - 1));
+        book = new Book();
+    }
+
+    @Benchmark
+    public BookDTO validateRequestDTO() {
+        BookServiceHelper.validateRequestDTO(bookDTO);
+        return bookDTO;
+    }
+
+    @Benchmark
+    public Book createBookFromDTO() {
+        return BookServiceHelper.createBookFromDTO(bookDTO, authors);
+    }
+
+    @Benchmark
+    public Book updateBookFromDTO() {
+        BookServiceHelper.updateBookFromDTO(book, bookUpdateDTO, authors);
+        return book;
+    }
+
+    @Benchmark
+    public boolean hasMatchingAuthor() {
+        return BookServiceHelper.hasMatchingAuthor(bookAuthors, searchAuthors);
+    }
+}
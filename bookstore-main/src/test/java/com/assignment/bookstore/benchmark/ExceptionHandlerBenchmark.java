@@ -0,0 +1,41 @@
+package com.assignment.bookstore.benchmark;
+
+import com.assignment.bookstore.common.GlobalExceptionHandler;
+import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.model.ErrorResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a 404: throwing the exception from a few frames down and turning it into the
+ * error body, as happens for every lookup of an unknown ISBN.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> bookNotFound() {
+        try {
+            lookup(8, "1234567890");
+            throw new IllegalStateException("unreachable");
+        } catch (BookNotFoundException e) {
+            return handler.handleBookNotFoundException(e);
+        }
+    }
+
+    private static void lookup(int depth, String isbn) {
+        if (depth == 0) {
+            throw new BookNotFoundException("Book with ISBN: " + isbn + " not found");
+        }
+        lookup(depth - 1, isbn);
+    }
+}
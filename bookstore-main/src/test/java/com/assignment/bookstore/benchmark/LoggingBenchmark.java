@@ -0,0 +1,89 @@
+package com.assignment.bookstore.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.assignment.bookstore.common.SamplingTurboFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a request thread pays for one {@code log.info} read log: written synchronously with an
+ * immediate flush like the default console appender, enqueued to the async appender, or
+ * dropped by the sampling filter. Output goes to /dev/null so only the logging pipeline and the
+ * write call are measured, not the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String ISBN = "9780306406157";
+
+    @Param({"sync", "async", "sampled"})
+    public String pipeline;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        context = new LoggerContext();
+        Appender<ILoggingEvent> appender = nullAppender();
+        if (pipeline.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(appender);
+            async.start();
+            appender = async;
+        } else if (pipeline.equals("sampled")) {
+            SamplingTurboFilter sampler = new SamplingTurboFilter();
+            sampler.setContext(context);
+            sampler.setLogger("com.assignment.bookstore.service.BookService.reads");
+            sampler.setRate(100);
+            sampler.start();
+            context.addTurboFilter(sampler);
+        }
+        logger = context.getLogger("com.assignment.bookstore.service.BookService.reads");
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void findBookLog() {
+        logger.info("Finding book with ISBN: {}", ISBN);
+    }
+
+    private Appender<ILoggingEvent> nullAppender() throws FileNotFoundException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level --- [%15.15thread] %-40.40logger{39} : %msg%n");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setImmediateFlush(true);
+        appender.setOutputStream(new FileOutputStream("/dev/null"));
+        appender.start();
+        return appender;
+    }
+}
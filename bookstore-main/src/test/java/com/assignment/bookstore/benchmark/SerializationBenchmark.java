@@ -0,0 +1,70 @@
+package com.assignment.bookstore.benchmark;
+
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the request and response bodies. Books are written as {@link BookView},
+ * which is what the controller returns; entities are no longer serialized.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectWriter bookViewWriter;
+    private ObjectWriter bookDTOWriter;
+    private ObjectReader bookDTOReader;
+    private BookView bookView;
+    private BookDTO bookDTO;
+    private String bookDTOJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // configured like Spring Boot's auto-configured mapper
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        bookViewWriter = objectMapper.writerFor(BookView.class);
+        bookDTOWriter = objectMapper.writerFor(BookDTO.class);
+        bookDTOReader = objectMapper.readerFor(BookDTO.class);
+
+        bookView = new BookView("978-3-16-148410-0", "Benchmark Title", 2020, 19.99, "Fiction", List.of(
+                new AuthorView(1L, "First Author", LocalDate.of(1970, 1, 1)),
+                new AuthorView(2L, "Second Author", LocalDate.of(1980, 6, 15))), 0L);
+        bookDTO = new BookDTO("978-3-16-148410-0", "Benchmark Title", 2020, 19.99, "Fiction", List.of(
+                new AuthorDTO("First Author", LocalDate.of(1970, 1, 1)),
+                new AuthorDTO("Second Author", LocalDate.of(1980, 6, 15))));
+        bookDTOJson = bookDTOWriter.writeValueAsString(bookDTO);
+    }
+
+    @Benchmark
+    public byte[] writeBookView() throws Exception {
+        return bookViewWriter.writeValueAsBytes(bookView);
+    }
+
+    @Benchmark
+    public byte[] writeBookDTO() throws Exception {
+        return bookDTOWriter.writeValueAsBytes(bookDTO);
+    }
+
+    @Benchmark
+    public BookDTO readBookDTO() throws Exception {
+        return bookDTOReader.readValue(bookDTOJson);
+    }
+}
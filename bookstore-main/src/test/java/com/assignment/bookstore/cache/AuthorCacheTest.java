@@ -0,0 +1,53 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Author;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorCacheTest {
+
+    private final AuthorCache authorCache = new AuthorCache(new BookstoreProperties());
+
+    private final AuthorKey key = AuthorKey.of("John Doe", LocalDate.of(1990, 1, 1));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testPutAfterCommit_WithoutTransaction_PutsImmediately() {
+        Author author = new Author();
+
+        authorCache.putAfterCommit(key, author);
+
+        assertSame(author, authorCache.get(key));
+    }
+
+    @Test
+    void testPutAfterCommit_DefersUntilCommit() {
+        Author author = new Author();
+        TransactionSynchronizationManager.initSynchronization();
+
+        authorCache.putAfterCommit(key, author);
+        assertNull(authorCache.get(key));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertSame(author, authorCache.get(key));
+    }
+
+    @Test
+    void testKeyIgnoresNameFormatting() {
+        assertEquals(key, AuthorKey.of(" JOHN  doe", LocalDate.of(1990, 1, 1)));
+        assertNotEquals(key, AuthorKey.of("John Doe", null));
+    }
+}
@@ -0,0 +1,82 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.model.BookView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private final BookCache bookCache = new BookCache(new BookstoreProperties());
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testInvalidate_AfterTransactionCompletionDropsStaleReload() {
+        BookView stale = new BookView("9780306406157", "Old Title", 2020, 10.0, "Fiction", List.of(), 0L);
+        AtomicInteger loads = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        bookCache.invalidate(9780306406157L);
+        // a concurrent reader repopulates the entry with the pre-commit row
+        bookCache.get(9780306406157L, isbn -> Optional.of(stale));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        bookCache.get(9780306406157L, isbn -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGetAll_LoadsMissesTogetherOnce() {
+        BookView cached = new BookView("9780306406157", "Cached", 2020, 10.0, "Fiction", List.of(), 0L);
+        bookCache.get(9780306406157L, isbn -> Optional.of(cached));
+        List<Set<Long>> loads = new ArrayList<>();
+
+        Map<Long, Optional<BookView>> books = bookCache.getAll(List.of(9780306406157L, 1L, 2L), misses -> {
+            loads.add(Set.copyOf(misses));
+            return Map.of(1L, Optional.empty(), 2L, Optional.empty());
+        });
+        bookCache.getAll(List.of(1L, 2L), misses -> {
+            loads.add(Set.copyOf(misses));
+            return Map.of();
+        });
+
+        assertEquals(List.of(Set.of(1L, 2L)), loads);
+        assertSame(cached, books.get(9780306406157L).orElseThrow());
+        assertEquals(Optional.empty(), books.get(1L));
+    }
+
+    @Test
+    void testMetricsArePublished() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bookCache.bindTo(registry);
+
+        bookCache.get(9780306406157L, isbn -> Optional.empty());
+        bookCache.get(9780306406157L, isbn -> Optional.empty());
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "books.isbn").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "books.isbn").tag("result", "miss").functionCounter().count());
+        assertNotNull(registry.get("cache.evictions").tag("cache", "books.isbn").functionCounter());
+    }
+}
@@ -0,0 +1,70 @@
+package com.assignment.bookstore.cache;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.service.TokenService;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenCacheTest {
+
+    private static final SecretKey KEY = key("0123456789abcdef0123456789abcdef");
+
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new TokenCache(KEY, new BookstoreProperties());
+    }
+
+    @Test
+    void decode_ReturnsCachedResultForSameToken() {
+        String token = sign(KEY, TokenService.ISSUER, Instant.now().plus(5, ChronoUnit.MINUTES));
+
+        Jwt first = tokenCache.decode(token);
+        Jwt second = tokenCache.decode(token);
+
+        assertThat(first.getSubject()).isEqualTo("admin");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void decode_RejectsForeignSignatureIssuerAndExpiredTokens() {
+        String foreign = sign(key("fedcba9876543210fedcba9876543210"), TokenService.ISSUER, Instant.now().plus(5, ChronoUnit.MINUTES));
+        String otherIssuer = sign(KEY, "someone-else", Instant.now().plus(5, ChronoUnit.MINUTES));
+        String expired = sign(KEY, TokenService.ISSUER, Instant.now().minus(5, ChronoUnit.MINUTES));
+
+        assertThrows(JwtException.class, () -> tokenCache.decode(foreign));
+        assertThrows(JwtException.class, () -> tokenCache.decode(otherIssuer));
+        assertThrows(JwtException.class, () -> tokenCache.decode(expired));
+        // failures are not cached
+        assertThrows(JwtException.class, () -> tokenCache.decode(expired));
+    }
+
+    private static String sign(SecretKey key, String issuer, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject("admin")
+                .issuedAt(expiresAt.minus(15, ChronoUnit.MINUTES))
+                .expiresAt(expiresAt)
+                .build();
+        return new NimbusJwtEncoder(new ImmutableSecret<>(key))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    private static SecretKey key(String secret) {
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    }
+}
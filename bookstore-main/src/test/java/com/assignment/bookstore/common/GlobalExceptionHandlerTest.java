@@ -1,15 +1,18 @@
 package com.assignment.bookstore.common;
 
+import com.assignment.bookstore.exception.AuthorNotFoundException;
 import com.assignment.bookstore.exception.BookNotFoundException;
 import com.assignment.bookstore.exception.EntityExistsException;
 import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.exception.PreconditionFailedException;
 import com.assignment.bookstore.exception.UnauthorizedException;
+import com.assignment.bookstore.model.ErrorResponse;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
-import java.util.Date;
-import java.util.Map;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,25 +23,59 @@ class GlobalExceptionHandlerTest {
     @Test
     void testHandleBookNotFoundException() {
         BookNotFoundException ex = new BookNotFoundException("Book not found");
-        ResponseEntity<Object> response = exceptionHandler.handleBookNotFoundException(ex);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleBookNotFoundException(ex);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertResponseBody(response.getBody(), HttpStatus.NOT_FOUND.value(), "Not Found", "Book not found");
     }
 
+    @Test
+    void testHandleAuthorNotFoundException() {
+        AuthorNotFoundException ex = new AuthorNotFoundException("Author not found");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleAuthorNotFoundException(ex);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertResponseBody(response.getBody(), HttpStatus.NOT_FOUND.value(), "Not Found", "Author not found");
+    }
+
+    @Test
+    void testRethrowSecurityException() {
+        AccessDeniedException ex = new AccessDeniedException("Access Denied");
+
+        assertSame(ex, assertThrows(AccessDeniedException.class, () -> exceptionHandler.rethrowSecurityException(ex)));
+    }
+
     @Test
     void testHandleEntityExistsException() {
         EntityExistsException ex = new EntityExistsException("Entity already exists");
-        ResponseEntity<Object> response = exceptionHandler.handleEntityExistsException(ex);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleEntityExistsException(ex);
 
         assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
         assertResponseBody(response.getBody(), HttpStatus.CONFLICT.value(), "Conflict", "Entity already exists");
     }
 
+    @Test
+    void testHandleOptimisticLockingFailureException() {
+        OptimisticLockingFailureException ex = new OptimisticLockingFailureException("Row was updated by another transaction");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOptimisticLockingFailureException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertResponseBody(response.getBody(), HttpStatus.CONFLICT.value(), "Conflict", "The book was changed by another request, reload it and retry");
+    }
+
+    @Test
+    void testHandlePreconditionFailedException() {
+        PreconditionFailedException ex = new PreconditionFailedException("Book has been modified");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handlePreconditionFailedException(ex);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertResponseBody(response.getBody(), HttpStatus.PRECONDITION_FAILED.value(), "Precondition Failed", "Book has been modified");
+    }
+
     @Test
     void testHandleUnauthorizedException() {
         UnauthorizedException ex = new UnauthorizedException("Unauthorized access");
-        ResponseEntity<Object> response = exceptionHandler.handleUnauthorizedException(ex);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleUnauthorizedException(ex);
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
         assertResponseBody(response.getBody(), HttpStatus.UNAUTHORIZED.value(), "Unauthorized", "Unauthorized access");
@@ -47,29 +84,35 @@ class GlobalExceptionHandlerTest {
     @Test
     void testHandleInvalidInputException() {
         InvalidInputException ex = new InvalidInputException("Invalid input provided");
-        ResponseEntity<Object> response = exceptionHandler.handleInvalidInputException(ex);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidInputException(ex);
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertResponseBody(response.getBody(), HttpStatus.BAD_REQUEST.value(), "Bad Request", "Invalid input provided");
     }
 
+    @Test
+    void testHandleCannotCreateTransactionException() {
+        CannotCreateTransactionException ex = new CannotCreateTransactionException("Connection is not available");
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleCannotCreateTransactionException(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertResponseBody(response.getBody(), HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", "The service is busy, please retry shortly");
+    }
+
     @Test
     void testHandleGeneralException() {
         Exception ex = new Exception("Some unexpected error");
-        ResponseEntity<Object> response = exceptionHandler.handleGeneralException(ex);
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleGeneralException(ex);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertResponseBody(response.getBody(), HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error", "An unexpected error occurred");
     }
 
-    private void assertResponseBody(Object body, int status, String error, String message) {
-        assertInstanceOf(Map.class, body);
-        Map<String, Object> responseBody = (Map<String, Object>) body;
-
-        assertNotNull(responseBody.get("timestamp"));
-        assertInstanceOf(Date.class, responseBody.get("timestamp"));
-        assertEquals(status, responseBody.get("status"));
-        assertEquals(error, responseBody.get("error"));
-        assertEquals(message, responseBody.get("message"));
+    private void assertResponseBody(ErrorResponse body, int status, String error, String message) {
+        assertNotNull(body);
+        assertNotNull(body.timestamp());
+        assertEquals(status, body.status());
+        assertEquals(error, body.error());
+        assertEquals(message, body.message());
     }
 }
\ No newline at end of file
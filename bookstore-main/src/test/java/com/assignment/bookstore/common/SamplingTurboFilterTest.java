@@ -0,0 +1,62 @@
+package com.assignment.bookstore.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLogger("com.example.reads");
+        filter.setRate(3);
+        filter.start();
+    }
+
+    @Test
+    void testKeepsOneInRate() {
+        Logger reads = context.getLogger("com.example.reads");
+
+        int kept = 0;
+        for (int i = 0; i < 9; i++) {
+            if (filter.decide(null, reads, Level.INFO, "Finding {}", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        assertEquals(3, kept);
+    }
+
+    @Test
+    void testIgnoresOtherLoggersLouderLevelsAndEnabledChecks() {
+        Logger reads = context.getLogger("com.example.reads");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, context.getLogger("com.example.readsOther"), Level.INFO, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, context.getLogger("com.example"), Level.INFO, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, reads, Level.WARN, "x", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, reads, Level.INFO, null, null, null));
+        // none of the above used up the sample, so the next event is kept and the one after dropped
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, reads, Level.INFO, "x", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, context.getLogger("com.example.reads.child"), Level.DEBUG, "x", null, null));
+    }
+
+    @Test
+    void testDoesNotStartWithoutLogger() {
+        SamplingTurboFilter unconfigured = new SamplingTurboFilter();
+        unconfigured.setContext(context);
+        unconfigured.start();
+
+        assertFalse(unconfigured.isStarted());
+    }
+}
@@ -0,0 +1,134 @@
+package com.assignment.bookstore.config;
+
+import com.assignment.bookstore.cache.TokenCache;
+import com.assignment.bookstore.controller.BookController;
+import com.assignment.bookstore.model.ImportFormat;
+import com.assignment.bookstore.model.ImportReport;
+import com.assignment.bookstore.service.BookImportService;
+import com.assignment.bookstore.service.BookService;
+import com.assignment.bookstore.service.BookStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the admin endpoints through the application's filter chain and method security, which the
+ * controller tests replace with Spring Boot's defaults. Anonymous callers must be challenged with
+ * 401 and non-admin callers refused with 403, never answered with 500 or let through.
+ */
+@WebMvcTest(BookController.class)
+@Import({SecurityConfig.class, TokenCache.class, BookstoreProperties.class})
+class SecurityConfigTest {
+
+    private static final String ISBN = "9780306406157";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @MockitoBean
+    private BookImportService bookImportService;
+
+    @MockitoBean
+    private BookStreamService bookStreamService;
+
+    @Test
+    void getFullBookCatalog_Anonymous_IsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/books/all"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+        verify(bookService, never()).findAllBooks();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getFullBookCatalog_User_IsForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/books/all"))
+                .andExpect(status().isForbidden());
+        verify(bookService, never()).findAllBooks();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getFullBookCatalog_Admin_IsAllowed() throws Exception {
+        when(bookService.findAllBooks()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/books/all"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void removeBookFromCatalog_Anonymous_IsUnauthorized() throws Exception {
+        mockMvc.perform(delete("/api/v1/books/{isbn}", ISBN))
+                .andExpect(status().isUnauthorized());
+        verify(bookService, never()).deleteBook(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void removeBookFromCatalog_User_IsForbidden() throws Exception {
+        mockMvc.perform(delete("/api/v1/books/{isbn}", ISBN))
+                .andExpect(status().isForbidden());
+        verify(bookService, never()).deleteBook(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void removeBookFromCatalog_Admin_IsAllowed() throws Exception {
+        mockMvc.perform(delete("/api/v1/books/{isbn}", ISBN))
+                .andExpect(status().isNoContent());
+        verify(bookService).deleteBook(ISBN, null);
+    }
+
+    @Test
+    void importBookCatalog_Anonymous_IsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType("application/x-ndjson")
+                        .content("{}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+        verify(bookImportService, never()).importCatalog(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void importBookCatalog_User_IsForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType("text/csv")
+                        .content("isbn,title,year,price,genre,authors\n"))
+                .andExpect(status().isForbidden());
+        verify(bookImportService, never()).importCatalog(any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBookCatalog_Admin_IsAllowed() throws Exception {
+        when(bookImportService.importCatalog(any(), eq(ImportFormat.CSV))).thenReturn(new ImportReport(10));
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType(MediaType.valueOf("text/csv"))
+                        .content("isbn,title,year,price,genre,authors\n"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,44 @@
+package com.assignment.bookstore.controller;
+
+import com.assignment.bookstore.model.TokenResponse;
+import com.assignment.bookstore.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthController.class)
+class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TokenService tokenService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void issueToken_ReturnsBearerToken() throws Exception {
+        when(tokenService.issueToken(any())).thenReturn(new TokenResponse("signed.token.value", "Bearer", 900));
+
+        mockMvc.perform(post("/api/v1/auth/token").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").value("signed.token.value"))
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
+    }
+
+    @Test
+    void issueToken_WithoutCredentials_IsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/token").with(csrf()))
+                .andExpect(status().isUnauthorized());
+    }
+}
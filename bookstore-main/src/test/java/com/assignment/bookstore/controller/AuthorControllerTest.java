@@ -0,0 +1,101 @@
+package com.assignment.bookstore.controller;
+
+import com.assignment.bookstore.exception.AuthorNotFoundException;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.service.AuthorService;
+import com.assignment.bookstore.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AuthorController.class)
+class AuthorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AuthorService authorService;
+
+    @MockitoBean
+    private BookService bookService;
+
+    @Test
+    @WithMockUser
+    void getAuthors_ReturnsPage() throws Exception {
+        when(authorService.findAuthorPage("next-token", 10)).thenReturn(new CatalogPage<>(
+                List.of(new AuthorView(1L, "Test Author", LocalDate.of(1990, 1, 1))), "after-1", true));
+
+        mockMvc.perform(get("/api/v1/authors")
+                        .param("cursor", "next-token")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].name").value("Test Author"))
+                .andExpect(jsonPath("$.nextCursor").value("after-1"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser
+    void searchAuthors_ByNamePrefix() throws Exception {
+        when(authorService.findAuthorsByNamePrefix("test", null, null)).thenReturn(new CatalogPage<>(
+                List.of(new AuthorView(1L, "Test Author", null)), null, false));
+
+        mockMvc.perform(get("/api/v1/authors/search").param("name", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void searchAuthors_BlankName() throws Exception {
+        when(authorService.findAuthorsByNamePrefix(" ", null, null))
+                .thenThrow(new InvalidInputException("Author name must not be blank"));
+
+        mockMvc.perform(get("/api/v1/authors/search").param("name", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void getBooksByAuthor_ReturnsPageWithETag() throws Exception {
+        BookView book = new BookView("9780306406157", "Test Book", 2023, 10D, "Fiction",
+                List.of(new AuthorView(7L, "Test Author", null)), 4L);
+        when(bookService.findBooksByAuthor(7L, "next-token", 10))
+                .thenReturn(new CatalogPage<>(List.of(book), null, false));
+
+        mockMvc.perform(get("/api/v1/authors/7/books")
+                        .param("cursor", "next-token")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.items[0].isbn").value("9780306406157"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void getBooksByAuthor_UnknownAuthor() throws Exception {
+        when(bookService.findBooksByAuthor(99L, null, null))
+                .thenThrow(new AuthorNotFoundException("Author not found with ID: 99"));
+
+        mockMvc.perform(get("/api/v1/authors/99/books"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Author not found with ID: 99"));
+    }
+}
@@ -1,23 +1,41 @@
 package com.assignment.bookstore.controller;
 
-import com.assignment.bookstore.entity.Book;
 import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.AuthorView;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookLookup;
+import com.assignment.bookstore.model.BookSearchCriteria;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.FacetCount;
+import com.assignment.bookstore.model.RangeCount;
+import com.assignment.bookstore.model.SearchPage;
+import com.assignment.bookstore.model.ImportFormat;
+import com.assignment.bookstore.model.ImportReport;
+import com.assignment.bookstore.service.BookImportService;
 import com.assignment.bookstore.service.BookService;
+import com.assignment.bookstore.service.BookStreamService;
+import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.exception.PreconditionFailedException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -36,28 +54,30 @@ class BookControllerTest {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private BookStreamService bookStreamService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
-    private Book testBook;
+    private BookView testBook;
     private BookDTO testBookDTO;
     private BookUpdateDTO testBookUpdateDTO;
 
     @BeforeEach
     void setUp() {
-        testBook = new Book();
-        testBook.setIsbn("123-456-789");
-        testBook.setTitle("Test Book");
-        testBook.setYear(2023);
-        testBook.setPrice(10D);
-        testBook.setGenre("Fiction");
+        testBook = new BookView("9780306406157", "Test Book", 2023, 10D, "Fiction",
+                List.of(new AuthorView(1L, "Test Author", LocalDate.of(1990, 1, 1))), 4L);
 
         AuthorDTO authorDTO = new AuthorDTO();
         authorDTO.setName("Test Author");
         authorDTO.setBirthday(LocalDate.of(1990, 1, 1));
 
         testBookDTO = new BookDTO();
-        testBookDTO.setIsbn("123-456-789");
+        testBookDTO.setIsbn("9780306406157");
         testBookDTO.setTitle("Test Book");
         testBookDTO.setYear(2022);
         testBookDTO.setPrice(1000D);
@@ -81,7 +101,7 @@ class BookControllerTest {
                         .content(objectMapper.writeValueAsString(testBookDTO))
                 .with(csrf()))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.isbn").value(testBook.getIsbn()));
+                .andExpect(jsonPath("$.isbn").value(testBook.isbn()));
     }
 
     @Test
@@ -96,21 +116,162 @@ class BookControllerTest {
     @Test
     @WithMockUser
     void getBookCatalog_Success() throws Exception {
-        when(bookService.findAllBooks()).thenReturn(Arrays.asList(testBook));
+        when(bookService.findCatalogPage(null, null))
+                .thenReturn(new CatalogPage<>(Arrays.asList(testBook), "next-token", true));
 
         mockMvc.perform(get("/api/v1/books/"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].isbn").value(testBook.getIsbn()));
+                .andExpect(jsonPath("$.items[0].isbn").value(testBook.isbn()))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser
+    void getCatalogFacets_Success() throws Exception {
+        when(bookService.findFacets()).thenReturn(new CatalogFacets(3,
+                List.of(new FacetCount("Fiction", 2), new FacetCount("Poetry", 1)),
+                List.of(new RangeCount(null, 10.0, 1), new RangeCount(10.0, null, 2)),
+                List.of(new RangeCount(1990, 2000, 3))));
+
+        mockMvc.perform(get("/api/v1/books/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBooks").value(3))
+                .andExpect(jsonPath("$.genres[0].value").value("Fiction"))
+                .andExpect(jsonPath("$.prices[0].from").doesNotExist())
+                .andExpect(jsonPath("$.years[0].from").value(1990));
+        mockMvc.perform(get("/api/v1/books/facets/genres"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].count").value(1));
+        mockMvc.perform(get("/api/v1/books/facets/prices"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].from").value(10.0));
+    }
+
+    @Test
+    @WithMockUser
+    void lookupBooks_ReturnsFoundAndMissing() throws Exception {
+        when(bookService.findBooksByIsbns(List.of("9780306406157", "9780000000002")))
+                .thenReturn(new BookLookup(List.of(testBook), List.of("9780000000002")));
+
+        mockMvc.perform(get("/api/v1/books/lookup").param("isbns", "9780306406157,9780000000002"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.found[0].isbn").value("9780306406157"))
+                .andExpect(jsonPath("$.missing[0]").value("9780000000002"));
+    }
+
+    @Test
+    @WithMockUser
+    void filterBookCatalog_PassesSuppliedFilters() throws Exception {
+        BookSearchCriteria criteria = new BookSearchCriteria("test", null, "Fiction", 2000, 2010, null, 20.0);
+        when(bookService.searchCatalog(criteria, "price,desc", 2, 5, true))
+                .thenReturn(new SearchPage<>(List.of(testBook), 2, 5, false, 11L));
+
+        mockMvc.perform(get("/api/v1/books/filter")
+                        .param("title", "test")
+                        .param("genre", "Fiction")
+                        .param("yearFrom", "2000")
+                        .param("yearTo", "2010")
+                        .param("priceTo", "20")
+                        .param("sort", "price,desc")
+                        .param("page", "2")
+                        .param("limit", "5")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.items[0].isbn").value("9780306406157"))
+                .andExpect(jsonPath("$.page").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalCount").value(11));
+    }
+
+    @Test
+    @WithMockUser
+    void getBookCatalog_WithCursorAndLimit() throws Exception {
+        when(bookService.findCatalogPage("next-token", 10))
+                .thenReturn(new CatalogPage<>(Collections.emptyList(), null, false));
+
+        mockMvc.perform(get("/api/v1/books/")
+                        .param("cursor", "next-token")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @WithMockUser
+    void streamBookCatalog_StreamsNdjson() throws Exception {
+        when(bookStreamService.streamCatalog("next-token")).thenReturn(out ->
+                out.write((objectMapper.writeValueAsString(testBook) + "\n").getBytes(StandardCharsets.UTF_8)));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/books/stream").param("cursor", "next-token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(objectMapper.writeValueAsString(testBook) + "\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void streamBookCatalogSearch_NoMatches() throws Exception {
+        when(bookStreamService.streamSearch("missing", null)).thenThrow(new BookNotFoundException("No books found"));
+
+        mockMvc.perform(get("/api/v1/books/search/stream").param("title", "missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getFullBookCatalog_Success() throws Exception {
+        when(bookService.findAllBooks()).thenReturn(Arrays.asList(testBook));
+
+        mockMvc.perform(get("/api/v1/books/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].isbn").value(testBook.isbn()));
     }
 
     @Test
     @WithMockUser
     void getBookDetails_Success() throws Exception {
-        when(bookService.findBookByIsbn(testBook.getIsbn())).thenReturn(testBook);
+        when(bookService.findBookByIsbn(testBook.isbn())).thenReturn(testBook);
 
-        mockMvc.perform(get("/api/v1/books/{isbn}", testBook.getIsbn()))
+        mockMvc.perform(get("/api/v1/books/{isbn}", testBook.isbn()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.isbn").value(testBook.getIsbn()));
+                .andExpect(jsonPath("$.isbn").value(testBook.isbn()))
+                .andExpect(jsonPath("$.authors[0].name").value("Test Author"))
+                .andExpect(jsonPath("$.authors[0].birthday").value("1990-01-01"))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getBookDetails_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        when(bookService.findBookByIsbn(testBook.isbn())).thenReturn(testBook);
+
+        mockMvc.perform(get("/api/v1/books/{isbn}", testBook.isbn())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @WithMockUser
+    void getBookCatalog_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        when(bookService.findCatalogPage(null, null))
+                .thenReturn(new CatalogPage<>(List.of(testBook), null, false));
+        String etag = mockMvc.perform(get("/api/v1/books/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/books/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
     }
 
     @Test
@@ -122,31 +283,47 @@ class BookControllerTest {
         mockMvc.perform(get("/api/v1/books/search")
                         .param("title", "Test Book"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].isbn").value(testBook.getIsbn()));
+                .andExpect(jsonPath("$[0].isbn").value(testBook.isbn()));
     }
 
     @Test
     @WithMockUser
     void updateBookCatalogEntry_Success() throws Exception {
-        when(bookService.updateBook(eq(testBook.getIsbn()), any(BookUpdateDTO.class)))
+        when(bookService.updateBook(eq(testBook.isbn()), any(BookUpdateDTO.class), eq("\"3\"")))
                 .thenReturn(testBook);
 
-        mockMvc.perform(put("/api/v1/books/{isbn}", testBook.getIsbn())
+        mockMvc.perform(put("/api/v1/books/{isbn}", testBook.isbn())
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(testBookUpdateDTO))
                         .with(csrf()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.isbn").value(testBook.getIsbn()));
+                .andExpect(jsonPath("$.isbn").value(testBook.isbn()))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @WithMockUser
+    void updateBookCatalogEntry_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        when(bookService.updateBook(eq(testBook.isbn()), any(BookUpdateDTO.class), eq("\"2\"")))
+                .thenThrow(new PreconditionFailedException("Book has been modified"));
+
+        mockMvc.perform(put("/api/v1/books/{isbn}", testBook.isbn())
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBookUpdateDTO))
+                        .with(csrf()))
+                .andExpect(status().isPreconditionFailed());
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void removeBookFromCatalog_Success() throws Exception {
-        mockMvc.perform(delete("/api/v1/books/{isbn}", testBook.getIsbn())
+        mockMvc.perform(delete("/api/v1/books/{isbn}", testBook.isbn())
                 .with(csrf()))
                 .andExpect(status().isNoContent());
 
-        verify(bookService).deleteBook(testBook.getIsbn());
+        verify(bookService).deleteBook(testBook.isbn(), null);
     }
 
     @Test
@@ -159,4 +336,40 @@ class BookControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$").isEmpty());
     }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBookCatalogNdjson_ReturnsReport() throws Exception {
+        ImportReport report = new ImportReport(10);
+        report.recordReceived();
+        report.recordReceived();
+        report.recordImported(1);
+        report.recordFailure(2, "bad", "Invalid ISBN format. Must be 10-17 digits with optional hyphens");
+        when(bookImportService.importCatalog(any(), eq(ImportFormat.NDJSON))).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType("application/x-ndjson")
+                        .content(objectMapper.writeValueAsString(testBookDTO) + "\n{\"isbn\":\"bad\"}\n")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void importBookCatalogCsv_UsesCsvFormat() throws Exception {
+        when(bookImportService.importCatalog(any(), eq(ImportFormat.CSV))).thenReturn(new ImportReport(10));
+
+        mockMvc.perform(post("/api/v1/books/import")
+                        .contentType("text/csv")
+                        .content("isbn,title,year,price,genre,authors\n")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(0));
+
+        verify(bookImportService).importCatalog(any(), eq(ImportFormat.CSV));
+    }
 }
@@ -21,13 +21,13 @@ class BookTest {
         author.setId(1L);
 
         Book book = new Book();
-        book.setIsbn("1234567890");
+        book.setIsbn(9780306406157L);
         book.setTitle("Test Book");
         book.setAuthors(Set.of(author));
         book.setPrice(29.99);
         book.setGenre("Fiction");
 
-        assertEquals("1234567890", book.getIsbn());
+        assertEquals(9780306406157L, book.getIsbn());
         assertEquals("Test Book", book.getTitle());
         assertEquals(Set.of(author), book.getAuthors());
         assertEquals(29.99, book.getPrice());
@@ -0,0 +1,38 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        AuthorCursor cursor = new AuthorCursor("tolkien: the letters", 42L);
+
+        assertEquals(cursor, AuthorCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void testDecodeMalformedCursor() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> AuthorCursor.decode("not a cursor"));
+        assertEquals("Invalid author cursor", exception.getMessage());
+    }
+
+    @Test
+    void testDecodeCatalogCursor() {
+        assertThrows(InvalidInputException.class, () -> AuthorCursor.decode(CatalogCursor.encode(42L)));
+    }
+
+    @Test
+    void testDecodeNonNumericId() {
+        String cursor = Base64.getUrlEncoder().encodeToString("a1:x:john".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidInputException.class, () -> AuthorCursor.decode(cursor));
+    }
+}
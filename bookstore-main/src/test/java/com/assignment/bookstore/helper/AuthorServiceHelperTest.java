@@ -0,0 +1,39 @@
+package com.assignment.bookstore.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorServiceHelperTest {
+
+    @Test
+    void testNormalizeName_CollapsesWhitespaceAndCase() {
+        assertEquals("john ronald tolkien", AuthorServiceHelper.normalizeName("  John\tRonald   TOLKIEN "));
+    }
+
+    @Test
+    void testNormalizeName_CompatibilityForms() {
+        assertEquals(AuthorServiceHelper.normalizeName("Ｊｏｈｎ Doe"), AuthorServiceHelper.normalizeName("john doe"));
+    }
+
+    @Test
+    void testNormalizeName_Null() {
+        assertNull(AuthorServiceHelper.normalizeName(null));
+    }
+
+    @Test
+    void testToPrefixPattern_NormalizesName() {
+        assertEquals("john r%", AuthorServiceHelper.toPrefixPattern("  JOHN   R"));
+    }
+
+    @Test
+    void testToPrefixPattern_EscapesWildcards() {
+        assertEquals("50\\% o\\_k\\\\%", AuthorServiceHelper.toPrefixPattern("50% o_k\\"));
+    }
+
+    @Test
+    void testToPrefixPattern_Blank() {
+        assertNull(AuthorServiceHelper.toPrefixPattern(" \t"));
+        assertNull(AuthorServiceHelper.toPrefixPattern(null));
+    }
+}
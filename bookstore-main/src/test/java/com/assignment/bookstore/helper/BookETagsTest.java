@@ -0,0 +1,63 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.SearchPage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookETagsTest {
+
+    @Test
+    void testSingleBookTagIsQuotedVersion() {
+        assertEquals("\"7\"", BookETags.of(book("9780306406157", 7L)));
+        assertEquals("\"0\"", BookETags.of((Long) null));
+    }
+
+    @Test
+    void testListTagChangesWithVersionsAndOrder() {
+        List<BookView> books = List.of(book("9780306406157", 1L), book("9780000000002", 1L));
+
+        assertEquals(BookETags.of(books), BookETags.of(List.of(book("9780306406157", 1L), book("9780000000002", 1L))));
+        assertNotEquals(BookETags.of(books), BookETags.of(List.of(book("9780306406157", 2L), book("9780000000002", 1L))));
+        assertNotEquals(BookETags.of(books), BookETags.of(List.of(book("9780000000002", 1L), book("9780306406157", 1L))));
+        assertNotEquals(BookETags.of(books), BookETags.of(books.subList(0, 1)));
+    }
+
+    @Test
+    void testPageTagChangesWithHasNext() {
+        List<BookView> books = List.of(book("9780306406157", 1L));
+
+        assertNotEquals(BookETags.of(new CatalogPage<>(books, null, false)),
+                BookETags.of(new CatalogPage<>(books, "cursor", true)));
+    }
+
+    @Test
+    void testSearchPageTagChangesWithHasNextAndTotal() {
+        List<BookView> books = List.of(book("9780306406157", 1L));
+
+        assertEquals(BookETags.of(new SearchPage<>(books, 0, 1, true, null)),
+                BookETags.of(new SearchPage<>(books, 0, 1, true, null)));
+        assertNotEquals(BookETags.of(new SearchPage<>(books, 0, 1, true, null)),
+                BookETags.of(new SearchPage<>(books, 0, 1, false, null)));
+        assertNotEquals(BookETags.of(new SearchPage<>(books, 0, 1, true, 2L)),
+                BookETags.of(new SearchPage<>(books, 0, 1, true, 3L)));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(BookETags.matches(null, 3L));
+        assertTrue(BookETags.matches("\"3\"", 3L));
+        assertTrue(BookETags.matches("\"1\", \"3\"", 3L));
+        assertTrue(BookETags.matches("*", 3L));
+        assertFalse(BookETags.matches("\"2\"", 3L));
+        assertFalse(BookETags.matches("W/\"3\"", 3L));
+    }
+
+    private static BookView book(String isbn, Long version) {
+        return new BookView(isbn, "Title", 2020, 10.0, "Fiction", List.of(), version);
+    }
+}
@@ -3,9 +3,13 @@ package com.assignment.bookstore.helper;
 import com.assignment.bookstore.entity.Author;
 import com.assignment.bookstore.entity.Book;
 import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.BookAuthorRow;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookSearchCriteria;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Set;
@@ -17,7 +21,7 @@ class BookServiceHelperTest {
     @Test
     void testValidateRequestDTO_ValidInput() {
         BookDTO bookDTO = new BookDTO();
-        bookDTO.setIsbn("123-4567890123");
+        bookDTO.setIsbn("978-0-306-40615-7");
         bookDTO.setYear(2023);
 
         assertDoesNotThrow(() -> BookServiceHelper.validateRequestDTO(bookDTO));
@@ -31,13 +35,13 @@ class BookServiceHelperTest {
 
         InvalidInputException exception = assertThrows(InvalidInputException.class,
                 () -> BookServiceHelper.validateRequestDTO(bookDTO));
-        assertEquals("Invalid ISBN format. Must be 10-17 digits with optional hyphens", exception.getMessage());
+        assertEquals("Invalid ISBN. Must be a valid ISBN-10 or ISBN-13 with optional hyphens", exception.getMessage());
     }
 
     @Test
     void testValidateRequestDTO_InvalidYear() {
         BookDTO bookDTO = new BookDTO();
-        bookDTO.setIsbn("1234567890");
+        bookDTO.setIsbn("0-306-40615-2");
         bookDTO.setYear(1499);
 
         InvalidInputException exception = assertThrows(InvalidInputException.class,
@@ -48,7 +52,7 @@ class BookServiceHelperTest {
     @Test
     void testCreateBookFromDTO() {
         BookDTO bookDTO = new BookDTO();
-        bookDTO.setIsbn("1234567890");
+        bookDTO.setIsbn("0-306-40615-2");
         bookDTO.setTitle("Test Book");
         bookDTO.setYear(2023);
         bookDTO.setPrice(49.99);
@@ -60,7 +64,7 @@ class BookServiceHelperTest {
 
         Book book = BookServiceHelper.createBookFromDTO(bookDTO, List.of(author));
 
-        assertEquals("1234567890", book.getIsbn());
+        assertEquals(9780306406157L, book.getIsbn());
         assertEquals("Test Book", book.getTitle());
         assertEquals(2023, book.getYear());
         assertEquals(49.99, book.getPrice());
@@ -71,7 +75,7 @@ class BookServiceHelperTest {
     @Test
     void testUpdateBookFromDTO() {
         Book book = new Book();
-        book.setIsbn("1234567890");
+        book.setIsbn(9780306406157L);
         book.setTitle("Old Title");
         book.setYear(2020);
         book.setPrice(29.99);
@@ -122,4 +126,51 @@ class BookServiceHelperTest {
         result = BookServiceHelper.hasMatchingAuthor(bookAuthors, List.of(nonMatchingAuthor));
         assertFalse(result);
     }
+
+    @Test
+    void testToContainsPattern() {
+        assertEquals("%harry potter%", BookServiceHelper.toContainsPattern("  Harry Potter "));
+        assertEquals("%100\\% \\_real\\\\%", BookServiceHelper.toContainsPattern("100% _real\\"));
+        assertNull(BookServiceHelper.toContainsPattern(" "));
+        assertNull(BookServiceHelper.toContainsPattern(null));
+    }
+
+    @Test
+    void testToSearchSort() {
+        assertEquals(Sort.by("isbn"), BookServiceHelper.toSearchSort(null));
+        assertEquals(Sort.by("price"), BookServiceHelper.toSearchSort("price"));
+        assertEquals(Sort.by(Sort.Direction.DESC, "year"), BookServiceHelper.toSearchSort("year, DESC"));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.toSearchSort("version"));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.toSearchSort("title,sideways"));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.toSearchSort("title,asc,desc"));
+    }
+
+    @Test
+    void testValidateSearchCriteria_RejectsEmptyRanges() {
+        assertDoesNotThrow(() -> BookServiceHelper.validateSearchCriteria(
+                new BookSearchCriteria(null, null, null, 2000, 2001, 10.0, null)));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.validateSearchCriteria(
+                new BookSearchCriteria(null, null, null, 2010, 2000, null, null)));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.validateSearchCriteria(
+                new BookSearchCriteria(null, null, null, null, null, 20.0, 20.0)));
+    }
+
+    @Test
+    void testToOffset() {
+        assertEquals(60, BookServiceHelper.toOffset(3, 20));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.toOffset(-1, 20));
+        assertThrows(InvalidInputException.class, () -> BookServiceHelper.toOffset(Integer.MAX_VALUE, 20));
+    }
+
+    @Test
+    void testToBookViews_FoldsAuthorRows() {
+        List<BookView> views = BookServiceHelper.toBookViews(List.of(
+                new BookAuthorRow(9780306406157L, "First", 2020, 10.0, "Fiction", 0L, 1L, "Author One", null),
+                new BookAuthorRow(9780306406157L, "First", 2020, 10.0, "Fiction", 0L, 2L, "Author Two", null),
+                new BookAuthorRow(9780000000002L, "Second", 2021, 12.0, "Drama", 0L, null, null, null)));
+
+        assertEquals(2, views.size());
+        assertEquals(List.of("Author One", "Author Two"), views.get(0).authors().stream().map(a -> a.name()).toList());
+        assertTrue(views.get(1).authors().isEmpty());
+    }
 }
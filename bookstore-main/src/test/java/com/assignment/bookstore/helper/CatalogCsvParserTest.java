@@ -0,0 +1,58 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.BookDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCsvParserTest {
+
+    private final Map<String, Integer> columns = CatalogCsvParser.readHeader("ISBN,Title,Year,Price,Genre,Authors");
+
+    @Test
+    void testSplitLine_QuotedFields() {
+        List<String> fields = CatalogCsvParser.splitLine("1,\"Hello, \"\"World\"\"\",,x");
+
+        assertEquals(List.of("1", "Hello, \"World\"", "", "x"), fields);
+    }
+
+    @Test
+    void testSplitLine_UnterminatedQuote() {
+        assertThrows(InvalidInputException.class, () -> CatalogCsvParser.splitLine("1,\"open"));
+    }
+
+    @Test
+    void testReadHeader_MissingColumn() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> CatalogCsvParser.readHeader("isbn,title,year,price,genre"));
+        assertEquals("CSV header is missing column 'authors'", exception.getMessage());
+    }
+
+    @Test
+    void testToBookDTO() {
+        BookDTO bookDTO = CatalogCsvParser.toBookDTO(
+                "1234567890,\"Dune, Part One\",1965,9.99,Sci-Fi,Frank Herbert|1920-10-08;Jane Doe", columns);
+
+        assertEquals("1234567890", bookDTO.getIsbn());
+        assertEquals("Dune, Part One", bookDTO.getTitle());
+        assertEquals(1965, bookDTO.getYear());
+        assertEquals(9.99, bookDTO.getPrice());
+        assertEquals("Sci-Fi", bookDTO.getGenre());
+        assertEquals(2, bookDTO.getAuthors().size());
+        assertEquals("Frank Herbert", bookDTO.getAuthors().get(0).getName());
+        assertEquals(LocalDate.of(1920, 10, 8), bookDTO.getAuthors().get(0).getBirthday());
+        assertNull(bookDTO.getAuthors().get(1).getBirthday());
+    }
+
+    @Test
+    void testToBookDTO_InvalidNumber() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> CatalogCsvParser.toBookDTO("1234567890,Title,soon,9.99,Sci-Fi,Someone", columns));
+        assertEquals("Invalid year: soon", exception.getMessage());
+    }
+}
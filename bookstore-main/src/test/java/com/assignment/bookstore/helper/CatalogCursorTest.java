@@ -0,0 +1,38 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCursorTest {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        String cursor = CatalogCursor.encode(9780134685991L);
+
+        assertNotEquals("9780134685991", cursor);
+        assertEquals(9780134685991L, CatalogCursor.decode(cursor));
+    }
+
+    @Test
+    void testDecodeMalformedCursor() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> CatalogCursor.decode("not a cursor"));
+        assertEquals("Invalid catalog cursor", exception.getMessage());
+    }
+
+    @Test
+    void testDecodeNonNumericKey() {
+        String cursor = java.util.Base64.getUrlEncoder().encodeToString("k1:978-0-13".getBytes());
+
+        assertThrows(InvalidInputException.class, () -> CatalogCursor.decode(cursor));
+    }
+
+    @Test
+    void testDecodeForeignBase64() {
+        String foreign = java.util.Base64.getUrlEncoder().encodeToString("1234567890".getBytes());
+
+        assertThrows(InvalidInputException.class, () -> CatalogCursor.decode(foreign));
+    }
+}
@@ -0,0 +1,50 @@
+package com.assignment.bookstore.helper;
+
+import com.assignment.bookstore.exception.InvalidInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnCodecTest {
+
+    @Test
+    void testToKey_Isbn10And13MapToSameKey() {
+        assertEquals(9780306406157L, IsbnCodec.toKey("0-306-40615-2"));
+        assertEquals(9780306406157L, IsbnCodec.toKey("978-0-306-40615-7"));
+        assertEquals(9780306406157L, IsbnCodec.toKey("978 0 306 40615 7"));
+    }
+
+    @Test
+    void testToKey_Isbn10WithCheckX() {
+        assertEquals(9780804429573L, IsbnCodec.toKey("0-8044-2957-X"));
+        assertEquals(9780804429573L, IsbnCodec.toKey("080442957x"));
+    }
+
+    @Test
+    void testToKey_Prefix979() {
+        assertEquals(9791234567896L, IsbnCodec.toKey("979-1-234-56789-6"));
+    }
+
+    @Test
+    void testToKey_RejectsInvalidInput() {
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("978-0-306-40615-8"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("0-306-40615-3"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("9770306406150"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("0-306-4061X-2"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("97803064061570"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey("invalid-isbn"));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey(""));
+        assertEquals(IsbnCodec.INVALID, IsbnCodec.toKey(null));
+    }
+
+    @Test
+    void testParse_InvalidThrows() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class, () -> IsbnCodec.parse("1234567890"));
+        assertEquals("Invalid ISBN. Must be a valid ISBN-10 or ISBN-13 with optional hyphens", exception.getMessage());
+    }
+
+    @Test
+    void testFormat() {
+        assertEquals("9780306406157", IsbnCodec.format(IsbnCodec.parse("0-306-40615-2")));
+    }
+}
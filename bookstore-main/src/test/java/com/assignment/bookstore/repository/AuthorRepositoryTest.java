@@ -0,0 +1,110 @@
+package com.assignment.bookstore.repository;
+
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.model.AuthorRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the keyset queries behind the author listing and name lookup, in particular the
+ * (name_key, id) row-value cursor, and the conflict-skipping author insert, which mock-based
+ * tests cannot check.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+class AuthorRepositoryTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        persist("John Smith", LocalDate.of(1970, 1, 1));
+        persist("John Smith", LocalDate.of(1980, 1, 1));
+        persist("John Doe", null);
+        persist("Johnny Cash", null);
+        persist("Jo_n Under", null);
+        persist("Jane Doe", null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByNamePrefix_PagesInNameKeyAndIdOrder() {
+        List<AuthorRow> all = new ArrayList<>();
+        List<AuthorRow> page = authorRepository.findByNamePrefix("john%", Limit.of(2));
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            AuthorRow last = page.get(page.size() - 1);
+            page = authorRepository.findByNamePrefixAfter("john%", last.nameKey(), last.id(), Limit.of(2));
+        }
+
+        assertThat(all).extracting(AuthorRow::nameKey)
+                .containsExactly("john doe", "john smith", "john smith", "johnny cash");
+        // namesakes are split across pages by id without being skipped or repeated
+        assertThat(all.get(1).id()).isLessThan(all.get(2).id());
+    }
+
+    @Test
+    void findByNamePrefix_EscapedWildcardMatchesLiterally() {
+        assertThat(authorRepository.findByNamePrefix("jo\\_n%", Limit.of(10)))
+                .extracting(AuthorRow::name).containsExactly("Jo_n Under");
+    }
+
+    @Test
+    void findViewPageAfter_ContinuesById() {
+        List<Long> ids = authorRepository.findViewPage(Limit.of(6)).stream().map(view -> view.id()).toList();
+
+        assertThat(ids).hasSize(6).isSorted();
+        assertThat(authorRepository.findViewPageAfter(ids.get(3), Limit.of(10)))
+                .extracting(view -> view.id()).containsExactly(ids.get(4), ids.get(5));
+    }
+
+    @Test
+    void insertIfAbsent_SkipsStoredAuthors() {
+        authorRepository.insertIfAbsent(List.of(
+                author("John Smith", LocalDate.of(1970, 1, 1)), author("Ann Lee", LocalDate.of(1990, 2, 3))));
+
+        assertThat(authorRepository.findByNameKeyIn(List.of("john smith", "ann lee")))
+                .extracting(Author::getName, Author::getBirthday)
+                .containsExactlyInAnyOrder(
+                        tuple("John Smith", LocalDate.of(1970, 1, 1)),
+                        tuple("John Smith", LocalDate.of(1980, 1, 1)),
+                        tuple("Ann Lee", LocalDate.of(1990, 2, 3)));
+        // ids come from the pooled blocks Hibernate assigns from, not one sequence value per row
+        persist("Bea Ray", null);
+        entityManager.flush();
+        List<Long> ids = authorRepository.findAll().stream().map(Author::getId).sorted().toList();
+        assertThat(ids).hasSize(8).doesNotHaveDuplicates();
+        assertThat(ids.get(7) - ids.get(0)).isLessThan(100);
+    }
+
+    private void persist(String name, LocalDate birthday) {
+        entityManager.persist(author(name, birthday));
+    }
+
+    private static Author author(String name, LocalDate birthday) {
+        Author author = new Author();
+        author.setName(name);
+        author.setBirthday(birthday);
+        author.setNameKey(name.toLowerCase());
+        return author;
+    }
+}
@@ -0,0 +1,156 @@
+package com.assignment.bookstore.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Measures title/author substring search against a PostgreSQL catalog of one million books.
+ * The schema is built by the application's Flyway migrations: first only V1, the tables and
+ * primary keys, to time the SQL of the former derived queries, then migrated to the latest
+ * version to time the trigram queries of {@link BookRepository} on the indexes they rely on.
+ * Runs only when a scratch database is supplied, for example:
+ * <pre>
+ * mvn test -Dtest=BookSearchBenchmarkTest \
+ *     -Dbookstore.bench.jdbc-url=jdbc:postgresql://localhost:5432/bench \
+ *     -Dbookstore.bench.user=myuser -Dbookstore.bench.password=mypassword
+ * </pre>
+ * Everything lives in the {@code search_bench} schema, which is dropped afterwards. If the
+ * database has no pg_trgm yet, the migration creates it inside that schema.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "bookstore.bench.jdbc-url", matches = ".+")
+class BookSearchBenchmarkTest {
+
+    private static final String SCHEMA = "search_bench";
+    private static final int BOOKS = 1_000_000;
+    private static final int AUTHORS = 200_000;
+    private static final int RUNS = 15;
+
+    // the SQL Hibernate generated for findByTitleContainingIgnoreCase(AndAuthorsNameContainingIgnoreCase)
+    private static final String DERIVED_TITLE = "select b.* from books b where upper(b.title) like upper(?) escape '\\'";
+
+    private static final String DERIVED_AUTHOR = "select b.* from books b join book_authors ba on ba.book_isbn = b.isbn"
+            + " join authors a on a.id = ba.author_id where upper(a.name) like upper(?) escape '\\'";
+
+    private static final String DERIVED_BOTH = "select b.* from books b join book_authors ba on ba.book_isbn = b.isbn"
+            + " join authors a on a.id = ba.author_id"
+            + " where upper(b.title) like upper(?) escape '\\' and upper(a.name) like upper(?) escape '\\'";
+
+    // BookRepository.searchByTitle, searchByAuthor and searchByTitleAndAuthor
+    private static final String TRIGRAM_TITLE = "select b.isbn from books b where lower(b.title) like ? escape '\\'";
+
+    private static final String TRIGRAM_AUTHOR = "select b.isbn from books b where exists (select 1 from book_authors ba"
+            + " join authors a on a.id = ba.author_id where ba.book_isbn = b.isbn and lower(a.name) like ? escape '\\')";
+
+    private static final String TRIGRAM_BOTH = "select b.isbn from books b where lower(b.title) like ? escape '\\'"
+            + " and exists (select 1 from book_authors ba join authors a on a.id = ba.author_id"
+            + " where ba.book_isbn = b.isbn and lower(a.name) like ? escape '\\')";
+
+    // a rare title fragment, a rare author fragment and a common one
+    private static final String TITLE = "%c4ca42%";
+    private static final String AUTHOR = "%a87ff6%";
+    private static final String COMMON_AUTHOR = "%author c%";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty("bookstore.bench.jdbc-url"),
+                System.getProperty("bookstore.bench.user"), System.getProperty("bookstore.bench.password"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        migrate(MigrationVersion.fromVersion("1"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA + ", public");
+            statement.execute("INSERT INTO authors (id, name, name_key) SELECT g, 'Author ' || md5(g::text), 'author ' || md5(g::text)"
+                    + " FROM generate_series(1, " + AUTHORS + ") g");
+            statement.execute("INSERT INTO books (isbn, title, year, price, genre, version)"
+                    + " SELECT 9780000000000 + g, 'Title ' || md5(g::text), 2000, 10, 'Fiction', 0 FROM generate_series(1, " + BOOKS + ") g");
+            statement.execute("INSERT INTO book_authors (book_isbn, author_id)"
+                    + " SELECT 9780000000000 + g, 1 + g % " + AUTHORS + " FROM generate_series(1, " + BOOKS + ") g");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection != null) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            }
+            connection.close();
+        }
+    }
+
+    @Test
+    void compareSearchLatency() throws SQLException {
+        double[] before = {
+                medianMillis(DERIVED_TITLE, TITLE),
+                medianMillis(DERIVED_AUTHOR, AUTHOR),
+                medianMillis(DERIVED_BOTH, TITLE, COMMON_AUTHOR)
+        };
+
+        migrate(MigrationVersion.LATEST);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE");
+        }
+        double[] after = {
+                medianMillis(TRIGRAM_TITLE, TITLE),
+                medianMillis(TRIGRAM_AUTHOR, AUTHOR),
+                medianMillis(TRIGRAM_BOTH, TITLE, COMMON_AUTHOR)
+        };
+
+        log.info("Search over {} books, median of {} runs, before -> after:", BOOKS, RUNS);
+        log.info("  title {}: {} ms -> {} ms", TITLE, format(before[0]), format(after[0]));
+        log.info("  author {}: {} ms -> {} ms", AUTHOR, format(before[1]), format(after[1]));
+        log.info("  title {} and author {}: {} ms -> {} ms", TITLE, COMMON_AUTHOR, format(before[2]), format(after[2]));
+    }
+
+    private static void migrate(MigrationVersion target) {
+        Flyway.configure()
+                .dataSource(System.getProperty("bookstore.bench.jdbc-url"),
+                        System.getProperty("bookstore.bench.user"), System.getProperty("bookstore.bench.password"))
+                .schemas(SCHEMA)
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static double medianMillis(String sql, String... patterns) throws SQLException {
+        double[] samples = new double[RUNS];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < RUNS; i++) {
+                for (int p = 0; p < patterns.length; p++) {
+                    statement.setString(p + 1, patterns[p]);
+                }
+                long start = System.nanoTime();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        // drain the result like the application would
+                    }
+                }
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private static String format(double millis) {
+        return String.format("%.1f", millis);
+    }
+}
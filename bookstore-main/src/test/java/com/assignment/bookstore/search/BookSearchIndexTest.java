@@ -0,0 +1,152 @@
+package com.assignment.bookstore.search;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
+import com.assignment.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getSearch().setBackend(BookstoreProperties.SearchBackend.INDEX);
+        index = new BookSearchIndex(properties, mock(BookRepository.class), mock(PlatformTransactionManager.class),
+                mock(TaskScheduler.class));
+
+        index.index(book(1L, "The Hobbit", "Fantasy", "J. R. R. Tolkien"));
+        index.index(book(2L, "The Fellowship of the Ring", "Fantasy", "J. R. R. Tolkien"));
+        index.index(book(3L, "Ring Ring Ring", "Poetry", "Jane Doe"));
+        index.index(book(4L, "A Hobbit Cookbook with a much longer title than the rest", "Cooking", "John Smith"));
+    }
+
+    @Test
+    void search_RequiresAllTermsAndRanksByRelevance() {
+        assertThat(index.search("ring", null)).containsExactly(3L, 2L);
+        assertThat(index.search("hobbit", "tolkien")).containsExactly(1L);
+        assertThat(index.search("hobbit", null)).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void search_MatchesLastTermAsPrefix() {
+        assertThat(index.search("fellowship ri", null)).containsExactly(2L);
+        assertThat(index.search(null, "tolk")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("ri fellowship", null)).isEmpty();
+    }
+
+    @Test
+    void search_TitleTermsDoNotMatchGenre() {
+        assertThat(index.search("poetry", null)).isEmpty();
+        assertThat(index.search("ring poetry", null)).isEmpty();
+    }
+
+    @Test
+    void search_NoCriteria_ReturnsNothing() {
+        assertThat(index.search(" ", null)).isEmpty();
+    }
+
+    @Test
+    void onBookChanged_AppliesUpdatesAndDeletes() {
+        BookSnapshot before = book(1L, "The Hobbit", "Fantasy", "J. R. R. Tolkien");
+        index.onBookChanged(BookChangedEvent.updated(before, book(1L, "There and Back Again", "Fantasy", "J. R. R. Tolkien")));
+
+        assertThat(index.search("hobbit", null)).containsExactly(4L);
+        assertThat(index.search("back again", null)).containsExactly(1L);
+
+        index.onBookChanged(BookChangedEvent.deleted(book(2L, "The Fellowship of the Ring", "Fantasy", "J. R. R. Tolkien")));
+
+        assertThat(index.search(null, "tolkien")).containsExactly(1L);
+        assertThat(index.search("fellowship", null)).isEmpty();
+    }
+
+    @Test
+    void rebuild_KeepsBooksChangedWhileLoading() {
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getSearch().setBackend(BookstoreProperties.SearchBackend.INDEX);
+        BookRepository bookRepository = mock(BookRepository.class);
+        BookSearchIndex rebuilt = new BookSearchIndex(properties, bookRepository, mock(PlatformTransactionManager.class),
+                mock(TaskScheduler.class));
+        when(bookRepository.findAllByOrderByIsbnAsc(any(Limit.class))).thenAnswer(invocation -> {
+            // committed while the page was read; the page still has the old title and the deleted book
+            rebuilt.onBookChanged(BookChangedEvent.updated(book(1L, "The Hobbit", "Fantasy", "J. R. R. Tolkien"),
+                    book(1L, "There and Back Again", "Fantasy", "J. R. R. Tolkien")));
+            rebuilt.onBookChanged(BookChangedEvent.deleted(book(2L, "The Fellowship of the Ring", "Fantasy", "J. R. R. Tolkien")));
+            return List.of(entity(1L, "The Hobbit"), entity(2L, "The Fellowship of the Ring"), entity(3L, "Ring Ring Ring"));
+        });
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.isReady()).isTrue();
+        assertThat(rebuilt.search("hobbit", null)).isEmpty();
+        assertThat(rebuilt.search("back again", null)).containsExactly(1L);
+        assertThat(rebuilt.search("ring", null)).containsExactly(3L);
+    }
+
+    @Test
+    void rebuild_Failure_StaysOnDatabaseAndRetries() {
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getSearch().setBackend(BookstoreProperties.SearchBackend.INDEX);
+        BookRepository bookRepository = mock(BookRepository.class);
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        BookSearchIndex rebuilt = new BookSearchIndex(properties, bookRepository, mock(PlatformTransactionManager.class),
+                taskScheduler);
+        when(bookRepository.findAllByOrderByIsbnAsc(any(Limit.class)))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of(entity(1L, "The Hobbit")));
+
+        rebuilt.rebuild();
+
+        assertThat(rebuilt.isReady()).isFalse();
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(retry.capture(), any(Instant.class));
+
+        // changed after the failure, so applied directly rather than kept for the failed rebuild
+        rebuilt.onBookChanged(BookChangedEvent.created(book(5L, "Mr. Bliss", "Fantasy", "J. R. R. Tolkien")));
+        retry.getValue().run();
+
+        assertThat(rebuilt.isReady()).isTrue();
+        assertThat(rebuilt.search(null, "tolkien")).containsExactlyInAnyOrder(5L);
+        assertThat(rebuilt.search("hobbit", null)).containsExactly(1L);
+    }
+
+    @Test
+    void onBookChanged_DisabledBackend_IgnoresEvents() {
+        BookSearchIndex disabled = new BookSearchIndex(new BookstoreProperties(), mock(BookRepository.class),
+                mock(PlatformTransactionManager.class), mock(TaskScheduler.class));
+
+        disabled.onBookChanged(BookChangedEvent.created(book(1L, "The Hobbit", "Fantasy", "J. R. R. Tolkien")));
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.search("hobbit", null)).isEmpty();
+    }
+
+    private BookSnapshot book(long isbn, String title, String genre, String author) {
+        return new BookSnapshot(isbn, title, genre, 2000, 10.0, List.of(author));
+    }
+
+    private static Book entity(long isbn, String title) {
+        Book book = new Book();
+        book.setIsbn(isbn);
+        book.setTitle(title);
+        book.setGenre("Fantasy");
+        return book;
+    }
+}
@@ -0,0 +1,212 @@
+package com.assignment.bookstore.search;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.event.BookSnapshot;
+import com.assignment.bookstore.model.BookFacetGroup;
+import com.assignment.bookstore.model.BookFacetRow;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.FacetCount;
+import com.assignment.bookstore.model.RangeCount;
+import com.assignment.bookstore.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogFacetIndexTest {
+
+    private BookRepository bookRepository;
+    private TaskScheduler taskScheduler;
+    private CatalogFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getFacets().setPriceBreaks(List.of(20.0, 10.0));
+        bookRepository = mock(BookRepository.class);
+        taskScheduler = mock(TaskScheduler.class);
+        index = new CatalogFacetIndex(properties, bookRepository, mock(PlatformTransactionManager.class), taskScheduler);
+
+        index.add(new BookFacetRow(1L, "Fantasy", 1937, 9.99));
+        index.add(new BookFacetRow(2L, "Fantasy", 1954, 10.0));
+        index.add(new BookFacetRow(3L, "Poetry", 1999, 25.0));
+    }
+
+    @Test
+    void facets_CountsGenresPriceRangesAndDecades() {
+        CatalogFacets facets = index.facets();
+
+        assertThat(facets.totalBooks()).isEqualTo(3);
+        assertThat(facets.genres()).containsExactly(new FacetCount("Fantasy", 2), new FacetCount("Poetry", 1));
+        // breaks are sorted and a price on a break belongs to the range above it
+        assertThat(facets.prices()).containsExactly(
+                new RangeCount(null, 10.0, 1), new RangeCount(10.0, 20.0, 1), new RangeCount(20.0, null, 1));
+        assertThat(facets.years()).containsExactly(
+                new RangeCount(1930, 1940, 1), new RangeCount(1950, 1960, 1), new RangeCount(1990, 2000, 1));
+    }
+
+    @Test
+    void facets_UnchangedCounts_ReturnSameSnapshot() {
+        CatalogFacets facets = index.facets();
+
+        assertThat(index.facets()).isSameAs(facets);
+        index.remove(new BookFacetRow(3L, "Poetry", 1999, 25.0));
+        assertThat(index.facets()).isNotSameAs(facets);
+        assertThat(index.facets().totalBooks()).isEqualTo(2);
+    }
+
+    @Test
+    void onBookChanged_MovesUpdatedBookAndDropsEmptyBuckets() {
+        BookSnapshot before = new BookSnapshot(3L, "Poems", "Poetry", 1999, 25.0, List.of());
+        BookSnapshot after = new BookSnapshot(3L, "Poems", "Fantasy", 2005, 5.0, List.of());
+
+        index.onBookChanged(BookChangedEvent.updated(before, after));
+
+        CatalogFacets facets = index.facets();
+        assertThat(facets.totalBooks()).isEqualTo(3);
+        assertThat(facets.genres()).containsExactly(new FacetCount("Fantasy", 3));
+        assertThat(facets.prices()).extracting(RangeCount::count).containsExactly(2L, 1L, 0L);
+        assertThat(facets.years()).extracting(RangeCount::from).containsExactly(1930, 1950, 2000);
+    }
+
+    @Test
+    void onBookChanged_CreateThenDelete_RestoresCounts() {
+        BookSnapshot book = new BookSnapshot(4L, "New", "Poetry", 2020, 15.0, List.of());
+
+        index.onBookChanged(BookChangedEvent.created(book));
+        assertThat(index.facets().genres()).contains(new FacetCount("Poetry", 2));
+
+        index.onBookChanged(BookChangedEvent.deleted(book));
+        assertThat(index.facets().totalBooks()).isEqualTo(3);
+        assertThat(index.facets().genres()).contains(new FacetCount("Poetry", 1));
+        assertThat(index.facets().years()).extracting(RangeCount::from).containsExactly(1930, 1950, 1990);
+    }
+
+    @Test
+    void rebuild_ReplacesCountsAndKeepsBooksChangedWhileLoading() {
+        BookChangedEvent retitled = BookChangedEvent.updated(
+                new BookSnapshot(1L, "Hobbit", "Fantasy", 1937, 9.99, List.of()),
+                new BookSnapshot(1L, "Hobbit", "Children", 1937, 9.99, List.of()));
+        when(bookRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // committed while the page was read; the page still has the old genre
+            index.onBookChanging(retitled);
+            index.onBookChanged(retitled);
+            return List.of(new BookFacetRow(1L, "Fantasy", 1937, 9.99), new BookFacetRow(5L, "Drama", 1601, 12.0));
+        });
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.facets().totalBooks()).isEqualTo(2);
+        assertThat(index.facets().genres()).extracting(FacetCount::value).containsExactly("Children", "Drama");
+    }
+
+    @Test
+    void rebuild_PageReadBetweenCommitAndEvent_CountsBookOnce() {
+        BookChangedEvent retitled = BookChangedEvent.updated(
+                new BookSnapshot(1L, "Hobbit", "Fantasy", 1937, 9.99, List.of()),
+                new BookSnapshot(1L, "Hobbit", "Children", 1937, 9.99, List.of()));
+        when(bookRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // the change commits before the page is read, its event arrives once the page is counted
+            index.onBookChanging(retitled);
+            return fullPage("Children");
+        });
+        when(bookRepository.findFacetRowsAfter(eq(1000L), any(Limit.class))).thenAnswer(invocation -> {
+            index.onBookChanged(retitled);
+            return List.of();
+        });
+
+        index.rebuild();
+
+        assertThat(index.facets().totalBooks()).isEqualTo(1000);
+        assertThat(index.facets().genres()).containsExactly(new FacetCount("Poetry", 999), new FacetCount("Children", 1));
+    }
+
+    @Test
+    void rebuild_ChangeToCountedPage_MovesBook() {
+        BookChangedEvent retitled = BookChangedEvent.updated(
+                new BookSnapshot(1L, "Hobbit", "Poetry", 1937, 9.99, List.of()),
+                new BookSnapshot(1L, "Hobbit", "Children", 1937, 9.99, List.of()));
+        when(bookRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> fullPage("Poetry"));
+        when(bookRepository.findFacetRowsAfter(eq(1000L), any(Limit.class))).thenAnswer(invocation -> {
+            index.onBookChanging(retitled);
+            index.onBookChanged(retitled);
+            return List.of();
+        });
+
+        index.rebuild();
+
+        assertThat(index.facets().totalBooks()).isEqualTo(1000);
+        assertThat(index.facets().genres()).containsExactly(new FacetCount("Poetry", 999), new FacetCount("Children", 1));
+    }
+
+    @Test
+    void rebuild_RolledBackChange_KeepsCommittedValues() {
+        BookChangedEvent deleted = BookChangedEvent.deleted(new BookSnapshot(5L, "Hamlet", "Drama", 1601, 12.0, List.of()));
+        when(bookRepository.findFacetRowsAfter(eq(0L), any(Limit.class))).thenAnswer(invocation -> {
+            // about to commit, then rolled back, so no onBookChanged follows
+            index.onBookChanging(deleted);
+            return List.of(new BookFacetRow(5L, "Drama", 1601, 12.0));
+        });
+
+        index.rebuild();
+
+        assertThat(index.facets().totalBooks()).isEqualTo(1);
+        assertThat(index.facets().genres()).containsExactly(new FacetCount("Drama", 1));
+    }
+
+    @Test
+    void rebuild_Failure_KeepsCountsFollowingChangesAndRetries() {
+        when(bookRepository.findFacetRowsAfter(eq(0L), any(Limit.class)))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(List.of(new BookFacetRow(5L, "Drama", 1601, 12.0), new BookFacetRow(6L, "Drama", 1606, 11.0)));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isFalse();
+        ArgumentCaptor<Runnable> retry = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(retry.capture(), any(Instant.class));
+
+        // no rebuild is running, so the change only moves the current counts
+        index.onBookChanged(BookChangedEvent.deleted(new BookSnapshot(1L, "Hobbit", "Fantasy", 1937, 9.99, List.of())));
+        assertThat(index.facets().totalBooks()).isEqualTo(2);
+
+        retry.getValue().run();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.facets().genres()).containsExactly(new FacetCount("Drama", 2));
+    }
+
+    @Test
+    void summarize_BucketsDatabaseGroups() {
+        CatalogFacets facets = index.summarize(List.of(
+                new BookFacetGroup("Fiction", 2001, 12.5, 3L),
+                new BookFacetGroup(null, null, null, 2L)));
+
+        assertThat(facets.totalBooks()).isEqualTo(5);
+        assertThat(facets.genres()).containsExactly(new FacetCount("Fiction", 3));
+        assertThat(facets.prices()).extracting(RangeCount::count).containsExactly(0L, 3L, 0L);
+        assertThat(facets.years()).containsExactly(new RangeCount(2000, 2010, 3));
+    }
+
+    // ISBNs 1 to 1000 with the given genre for the first book and Poetry for the rest
+    private static List<BookFacetRow> fullPage(String firstGenre) {
+        return LongStream.rangeClosed(1, 1000)
+                .mapToObj(isbn -> new BookFacetRow(isbn, isbn == 1 ? firstGenre : "Poetry", 1999, 25.0))
+                .toList();
+    }
+}
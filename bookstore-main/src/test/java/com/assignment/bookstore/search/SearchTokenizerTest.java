@@ -0,0 +1,26 @@
+package com.assignment.bookstore.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTokenizerTest {
+
+    @Test
+    void testTokenize_SplitsOnPunctuationAndLowercases() {
+        assertEquals(List.of("the", "lord", "of", "the", "rings", "1954"), SearchTokenizer.tokenize("The Lord-of the RINGS (1954)"));
+    }
+
+    @Test
+    void testTokenize_CompatibilityForms() {
+        assertEquals(List.of("tolkien"), SearchTokenizer.tokenize("ＴＯＬＫＩＥＮ"));
+    }
+
+    @Test
+    void testTokenize_BlankOrNull() {
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+        assertTrue(SearchTokenizer.tokenize(" - ").isEmpty());
+    }
+}
@@ -1,11 +1,20 @@
 package com.assignment.bookstore.service;
 
+import com.assignment.bookstore.cache.AuthorCache;
+import com.assignment.bookstore.config.BookstoreProperties;
 import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.helper.AuthorCursor;
+import com.assignment.bookstore.helper.CatalogCursor;
 import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.AuthorRow;
+import com.assignment.bookstore.model.AuthorView;
+import com.assignment.bookstore.model.CatalogPage;
 import com.assignment.bookstore.repository.AuthorRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -23,7 +32,7 @@ class AuthorServiceTest {
     @BeforeEach
     void setUp() {
         authorRepository = Mockito.mock(AuthorRepository.class);
-        authorService = new AuthorService(authorRepository);
+        authorService = new AuthorService(authorRepository, new AuthorCache(new BookstoreProperties()), new BookstoreProperties());
     }
 
     @Test
@@ -44,7 +53,7 @@ class AuthorServiceTest {
         assertNotNull(result);
         assertEquals("John Doe", result.getName());
         assertEquals(LocalDate.of(1990, 1, 1), result.getBirthday());
-        verify(authorRepository, times(1)).save(any(Author.class));
+        verify(authorRepository, times(1)).save(argThat(author -> "john doe".equals(author.getNameKey())));
     }
 
     @Test
@@ -54,7 +63,7 @@ class AuthorServiceTest {
         author.setId(1L);
         author.setName("John Doe");
 
-        when(authorRepository.findByNameIgnoreCaseContaining(searchName))
+        when(authorRepository.searchByName("%john%"))
                 .thenReturn(List.of(author));
 
         List<Author> result = authorService.findByAuthorName(searchName);
@@ -62,7 +71,7 @@ class AuthorServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("John Doe", result.get(0).getName());
-        verify(authorRepository, times(1)).findByNameIgnoreCaseContaining(searchName);
+        verify(authorRepository, times(1)).searchByName("%john%");
     }
 
     @Test
@@ -106,22 +115,26 @@ class AuthorServiceTest {
         Author savedAuthor1 = new Author();
         savedAuthor1.setId(1L);
         savedAuthor1.setName("John Doe");
+        savedAuthor1.setNameKey("john doe");
         savedAuthor1.setBirthday(LocalDate.of(1990, 1, 1));
 
         Author savedAuthor2 = new Author();
         savedAuthor2.setId(2L);
         savedAuthor2.setName("Jane Smith");
+        savedAuthor2.setNameKey("jane smith");
         savedAuthor2.setBirthday(LocalDate.of(1985, 5, 20));
 
-        when(authorRepository.save(any(Author.class))).thenReturn(savedAuthor1, savedAuthor2);
+        // nothing stored before the insert, both authors read back after it
+        when(authorRepository.findByNameKeyIn(List.of("john doe", "jane smith")))
+                .thenReturn(List.of(), List.of(savedAuthor2, savedAuthor1));
 
         List<Author> result = authorService.createAuthors(Arrays.asList(authorDTO1, authorDTO2));
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("John Doe", result.get(0).getName());
-        assertEquals("Jane Smith", result.get(1).getName());
-        verify(authorRepository, times(2)).save(any(Author.class));
+        assertEquals(List.of(savedAuthor1, savedAuthor2), result);
+        verify(authorRepository, times(2)).findByNameKeyIn(List.of("john doe", "jane smith"));
+        verify(authorRepository, times(1)).insertIfAbsent(argThat(authors -> authors.size() == 2));
+        verify(authorRepository, never()).save(any(Author.class));
+        verify(authorRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -142,4 +155,159 @@ class AuthorServiceTest {
         assertEquals(2, result.size());
         verify(authorRepository, times(1)).findAll();
     }
+
+    @Test
+    void testCreateAuthors_ReusesExistingAuthor() {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setName("  John   DOE ");
+        authorDTO.setBirthday(LocalDate.of(1990, 1, 1));
+
+        Author existing = new Author();
+        existing.setId(7L);
+        existing.setName("John Doe");
+        existing.setNameKey("john doe");
+        existing.setBirthday(LocalDate.of(1990, 1, 1));
+
+        Author namesake = new Author();
+        namesake.setId(8L);
+        namesake.setName("John Doe");
+        namesake.setNameKey("john doe");
+        namesake.setBirthday(LocalDate.of(1950, 3, 3));
+
+        when(authorRepository.findByNameKeyIn(List.of("john doe"))).thenReturn(List.of(namesake, existing));
+
+        List<Author> result = authorService.createAuthors(List.of(authorDTO));
+
+        assertEquals(List.of(existing), result);
+        verify(authorRepository, never()).save(any(Author.class));
+        verify(authorRepository, never()).insertIfAbsent(anyList());
+    }
+
+    @Test
+    void testCreateAuthors_ResolvesKnownAuthorFromCache() {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setName("John Doe");
+        authorDTO.setBirthday(LocalDate.of(1990, 1, 1));
+
+        Author savedAuthor = new Author();
+        savedAuthor.setId(1L);
+        savedAuthor.setName("John Doe");
+        savedAuthor.setNameKey("john doe");
+        savedAuthor.setBirthday(LocalDate.of(1990, 1, 1));
+
+        when(authorRepository.findByNameKeyIn(List.of("john doe"))).thenReturn(List.of(), List.of(savedAuthor));
+
+        authorService.createAuthors(List.of(authorDTO));
+        List<Author> result = authorService.createAuthors(List.of(authorDTO));
+
+        assertSame(savedAuthor, result.get(0));
+        // the lookup and the read back of the first call only
+        verify(authorRepository, times(2)).findByNameKeyIn(anyCollection());
+        verify(authorRepository, times(1)).insertIfAbsent(anyList());
+    }
+
+    @Test
+    void testCreateAuthors_DeduplicatesWithinRequest() {
+        AuthorDTO authorDTO1 = new AuthorDTO();
+        authorDTO1.setName("Jane Smith");
+
+        AuthorDTO authorDTO2 = new AuthorDTO();
+        authorDTO2.setName("jane smith");
+
+        Author savedAuthor = new Author();
+        savedAuthor.setId(2L);
+        savedAuthor.setName("Jane Smith");
+        savedAuthor.setNameKey("jane smith");
+
+        when(authorRepository.findByNameKeyIn(List.of("jane smith"))).thenReturn(List.of(), List.of(savedAuthor));
+
+        List<Author> result = authorService.createAuthors(Arrays.asList(authorDTO1, authorDTO2));
+
+        assertEquals(2, result.size());
+        assertSame(savedAuthor, result.get(0));
+        assertSame(result.get(0), result.get(1));
+        verify(authorRepository, times(1)).insertIfAbsent(argThat(authors -> authors.size() == 1));
+    }
+
+    @Test
+    void testCreateAuthors_ConcurrentlyCreatedAuthor_IsReadBack() {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setName("Jane Smith");
+
+        // stored by another request between the lookup and the insert, which then skips the row
+        Author concurrent = new Author();
+        concurrent.setId(51L);
+        concurrent.setName("Jane  Smith");
+        concurrent.setNameKey("jane smith");
+
+        when(authorRepository.findByNameKeyIn(List.of("jane smith"))).thenReturn(List.of(), List.of(concurrent));
+
+        List<Author> result = authorService.createAuthors(List.of(authorDTO));
+
+        assertEquals(List.of(concurrent), result);
+        verify(authorRepository, times(1)).insertIfAbsent(anyList());
+    }
+
+    @Test
+    void testCreateAuthors_AuthorNotReadBack_Fails() {
+        AuthorDTO authorDTO = new AuthorDTO();
+        authorDTO.setName("Jane Smith");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> authorService.createAuthors(List.of(authorDTO)));
+
+        assertEquals("Author 'Jane Smith' could not be stored", exception.getMessage());
+    }
+
+    @Test
+    void testFindAuthorPage_ReturnsCursorWhenMoreAuthorsExist() {
+        when(authorRepository.findViewPage(Limit.of(3))).thenReturn(List.of(
+                new AuthorView(1L, "John Doe", null), new AuthorView(2L, "Jane Smith", null), new AuthorView(5L, "Ann Lee", null)));
+
+        CatalogPage<AuthorView> page = authorService.findAuthorPage(null, 2);
+
+        assertEquals(List.of(1L, 2L), page.getItems().stream().map(AuthorView::id).toList());
+        assertTrue(page.isHasNext());
+        assertEquals(2L, CatalogCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void testFindAuthorPage_LastPageAfterCursor() {
+        when(authorRepository.findViewPageAfter(2L, Limit.of(3))).thenReturn(List.of(new AuthorView(5L, "Ann Lee", null)));
+
+        CatalogPage<AuthorView> page = authorService.findAuthorPage(CatalogCursor.encode(2L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFindAuthorsByNamePrefix_UsesNormalizedPrefixAndRowCursor() {
+        when(authorRepository.findByNamePrefix("john%", Limit.of(2))).thenReturn(List.of(
+                new AuthorRow(4L, "John Doe", null, "john doe"), new AuthorRow(3L, "John Smith", null, "john smith")));
+
+        CatalogPage<AuthorView> page = authorService.findAuthorsByNamePrefix(" JOHN ", null, 1);
+
+        assertEquals(List.of(new AuthorView(4L, "John Doe", null)), page.getItems());
+        assertEquals(new AuthorCursor("john doe", 4L), AuthorCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void testFindAuthorsByNamePrefix_ContinuesAfterCursor() {
+        String cursor = new AuthorCursor("john doe", 4L).encode();
+        when(authorRepository.findByNamePrefixAfter("john%", "john doe", 4L, Limit.of(2)))
+                .thenReturn(List.of(new AuthorRow(3L, "John Smith", null, "john smith")));
+
+        CatalogPage<AuthorView> page = authorService.findAuthorsByNamePrefix("john", cursor, 1);
+
+        assertEquals(List.of(new AuthorView(3L, "John Smith", null)), page.getItems());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void testFindAuthorsByNamePrefix_BlankName() {
+        assertThrows(InvalidInputException.class, () -> authorService.findAuthorsByNamePrefix("  ", null, null));
+        verifyNoInteractions(authorRepository);
+    }
 }
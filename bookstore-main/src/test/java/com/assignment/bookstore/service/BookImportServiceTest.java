@@ -0,0 +1,202 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
+import com.assignment.bookstore.model.ImportFormat;
+import com.assignment.bookstore.model.ImportReport;
+import com.assignment.bookstore.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookImportServiceTest {
+
+    private BookRepository bookRepository;
+    private AuthorService authorService;
+    private ApplicationEventPublisher eventPublisher;
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        bookRepository = mock(BookRepository.class);
+        authorService = mock(AuthorService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getBulkImport().setChunkSize(2);
+        properties.getBulkImport().setMaxReportedErrors(1);
+
+        when(authorService.createAuthors(anyList())).thenAnswer(invocation -> {
+            List<Author> authors = new ArrayList<>();
+            for (Object ignored : invocation.<List<?>>getArgument(0)) {
+                authors.add(new Author());
+            }
+            return authors;
+        });
+
+        bookImportService = newImportService(properties);
+    }
+
+    @Test
+    void importCatalog_Ndjson_WritesInChunks() {
+        String body = record("9780000000002") + "\n\n" + record("9780000000019") + "\n" + record("9780000000026") + "\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getReceived()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        verify(bookRepository, times(2)).saveAll(anyList());
+        verify(authorService, times(2)).createAuthors(anyList());
+        verify(eventPublisher, times(3)).publishEvent(any(BookChangedEvent.class));
+    }
+
+    @Test
+    void importCatalog_ReportsInvalidAndDuplicateRows() {
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of(9780000000019L));
+        String body = "{not json}\n" + record("bad-isbn!") + "\n" + record("9780000000019") + "\n" + record("9780000000026") + "\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getReceived()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Malformed JSON record");
+        assertThat(report.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    void importCatalog_NullAndNonObjectLines_AreRowFailures() {
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getBulkImport().setChunkSize(2);
+        bookImportService = newImportService(properties);
+        String body = "null\n[]\n42\n\"text\"\n" + record("9780000000002") + "\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getReceived()).isEqualTo(5);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(error -> error.getLine()).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(report.getErrors()).allSatisfy(error ->
+                assertThat(error.getMessage()).isEqualTo("Record must be a JSON object"));
+    }
+
+    @Test
+    void importCatalog_Csv() {
+        String body = "isbn,title,year,price,genre,authors\n"
+                + "9780000000002,Dune,1965,9.99,Sci-Fi,Frank Herbert|1920-10-08\n"
+                + "9780000000019,Emma,1815,0,Classic,Jane Austen\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.CSV);
+
+        assertThat(report.getReceived()).isEqualTo(2);
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Price can not be less than 1");
+    }
+
+    @Test
+    void importCatalog_FailedChunk_RetriesRowsIndividually() {
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            if (books.size() > 1 || books.get(0).getIsbn() == 9780000000019L) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return books;
+        });
+        String body = record("9780000000002") + "\n" + record("9780000000019") + "\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getIsbn()).isEqualTo("9780000000019");
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Violates a database constraint");
+    }
+
+    @Test
+    void importCatalog_FailedRow_ReportsViolatedConstraint() {
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            if (books.size() > 1) {
+                throw new DataIntegrityViolationException("batch failed");
+            }
+            String constraint = books.get(0).getIsbn() == 9780000000019L ? "pk_books" : "uk_authors_name_key_birthday";
+            throw new DataIntegrityViolationException("could not execute statement",
+                    new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), constraint));
+        });
+        String body = record("9780000000002") + "\n" + record("9780000000019") + "\n";
+
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getBulkImport().setChunkSize(2);
+        ImportReport report = newImportService(properties).importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(error -> error.getMessage()).containsExactly(
+                "Violates database constraint uk_authors_name_key_birthday",
+                "Book with ISBN 9780000000019 already exists.");
+    }
+
+    @Test
+    void importCatalog_DatabaseUnavailable_AbortsWithoutRowRetries() {
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            if (books.get(0).getIsbn() == 9780000000002L) {
+                return books;
+            }
+            throw new CannotCreateTransactionException("Could not open JPA EntityManager for transaction");
+        });
+        String body = record("9780000000002") + "\n" + record("9780000000019") + "\n"
+                + record("9780000000026") + "\n" + record("9780000000033") + "\n";
+
+        assertThatThrownBy(() -> bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON))
+                .isInstanceOf(CannotCreateTransactionException.class);
+        // the first chunk stays committed, the second is neither retried nor reported row by row
+        verify(bookRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void importCatalog_SameIsbnWrittenDifferently_IsDuplicate() {
+        String body = record("0-306-40615-2") + "\n" + record("978 0 306 40615 7") + "\n";
+
+        ImportReport report = bookImportService.importCatalog(new StringReader(body), ImportFormat.NDJSON);
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(2);
+    }
+
+    private BookImportService newImportService(BookstoreProperties properties) {
+        return new BookImportService(bookRepository, authorService, new BookCache(properties),
+                mock(PlatformTransactionManager.class), mock(EntityManager.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper().registerModule(new JavaTimeModule()), eventPublisher, properties);
+    }
+
+    private String record(String isbn) {
+        return "{\"isbn\":\"" + isbn + "\",\"title\":\"Title\",\"year\":2020,\"price\":10,"
+                + "\"genre\":\"Fiction\",\"authors\":[{\"name\":\"Author\"}]}";
+    }
+}
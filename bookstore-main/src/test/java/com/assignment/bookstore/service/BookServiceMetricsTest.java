@@ -0,0 +1,54 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.repository.BookRepository;
+import com.assignment.bookstore.search.BookSearchIndex;
+import com.assignment.bookstore.search.CatalogFacetIndex;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Checks that BookService operations are timed per method and tagged by outcome.
+ */
+class BookServiceMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private BookService bookService;
+
+    @BeforeEach
+    void setUp() {
+        BookstoreProperties properties = new BookstoreProperties();
+        BookService target = new BookService(mock(BookRepository.class), mock(AuthorService.class),
+                new BookCache(properties), mock(BookSearchIndex.class), mock(CatalogFacetIndex.class),
+                mock(ApplicationEventPublisher.class), properties);
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimedAspect(registry));
+        bookService = factory.getProxy();
+    }
+
+    @Test
+    void operations_AreTimedByMethodAndOutcome() {
+        bookService.findCatalogPage(null, 5);
+        assertThrows(InvalidInputException.class, () -> bookService.findCatalogPage(null, 0));
+
+        Timer success = registry.get("bookstore.book.service")
+                .tags("method", "findCatalogPage", "exception", "none").timer();
+        Timer failure = registry.get("bookstore.book.service")
+                .tags("method", "findCatalogPage", "exception", "InvalidInputException").timer();
+        assertThat(success.count()).isEqualTo(1);
+        assertThat(failure.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,349 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.AuthorCache;
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.exception.AuthorNotFoundException;
+import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.helper.IsbnCodec;
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookLookup;
+import com.assignment.bookstore.model.BookSearchCriteria;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.assignment.bookstore.model.SearchPage;
+import com.assignment.bookstore.search.BookSearchIndex;
+import com.assignment.bookstore.search.CatalogFacetIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Guards against N+1 author loading: every read path must issue a bounded number of
+ * statements regardless of how many books it returns, including Jackson serialization,
+ * and must answer from projections without hydrating entities.
+ * Also pins the statement cost of adding a book whose authors are already known.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({BookService.class, AuthorService.class, AuthorCache.class, BookCache.class, BookSearchIndex.class, CatalogFacetIndex.class,
+        BookstoreProperties.class, ThreadPoolTaskScheduler.class})
+class BookServiceQueryCountTest {
+
+    private static final int BOOK_COUNT = 40;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            Author first = persistAuthor("Search Author " + i);
+            Author second = persistAuthor("Co Author " + i);
+
+            Book book = new Book();
+            book.setIsbn(isbnKey(i));
+            book.setTitle("Searchable Title " + i);
+            book.setYear(2000 + i);
+            book.setPrice(10.0 + i);
+            book.setGenre("Fiction");
+            book.setAuthors(Set.of(first, second));
+            entityManager.persist(book);
+            // the ISBN cache outlives the rows rolled back after each test
+            bookCache.invalidate(book.getIsbn());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllBooks_UsesSingleStatement() throws Exception {
+        List<BookView> books = bookService.findAllBooks();
+        serialize(books);
+
+        assertThat(books).hasSize(BOOK_COUNT);
+        assertThat(books).allSatisfy(book -> assertThat(book.authors()).hasSize(2));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findBooks_LoadsProjectionRows() throws Exception {
+        List<BookView> books = bookService.findBooks("searchable", "search author");
+        serialize(books);
+
+        assertThat(books).hasSize(BOOK_COUNT);
+        assertThat(books).allSatisfy(book -> assertThat(book.authors()).hasSize(2));
+        // one search statement for the ISBNs plus one projection statement for the rows
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findBooks_MatchesSubstringsCaseInsensitively() {
+        assertThat(bookService.findBooks("TITLE 1", null)).hasSize(11);
+        assertThat(bookService.findBooks(null, "co author 39")).hasSize(1);
+        assertThat(bookService.findBooks("title 35", "SEARCH author 35")).hasSize(1);
+        assertThrows(BookNotFoundException.class, () -> bookService.findBooks("title 35", "search author 36"));
+    }
+
+    @Test
+    void findBookByIsbn_UsesSingleStatement() throws Exception {
+        BookView book = bookService.findBookByIsbn(IsbnCodec.format(isbnKey(7)));
+        serialize(book);
+
+        assertThat(book.authors()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findBooksByIsbns_UsesSingleStatementThenCache() throws Exception {
+        // the ISBN cache outlives each test, so this stays clear of the books other tests look up
+        List<String> isbns = new ArrayList<>();
+        for (int i = 10; i < BOOK_COUNT; i++) {
+            isbns.add(IsbnCodec.format(isbnKey(i)));
+        }
+        isbns.add(IsbnCodec.format(isbnKey(999)));
+
+        BookLookup lookup = bookService.findBooksByIsbns(isbns);
+        serialize(lookup);
+
+        assertThat(lookup.found()).hasSize(30);
+        assertThat(lookup.found()).allSatisfy(book -> assertThat(book.authors()).hasSize(2));
+        assertThat(lookup.missing()).containsExactly(IsbnCodec.format(isbnKey(999)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        statistics.clear();
+        assertThat(bookService.findBooksByIsbns(isbns).found()).hasSize(30);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findCatalogPage_LoadsProjectionRows() throws Exception {
+        CatalogPage<BookView> page = bookService.findCatalogPage(null, 30);
+        serialize(page);
+
+        assertThat(page.getItems()).hasSize(30);
+        assertThat(page.getItems()).allSatisfy(book -> assertThat(book.authors()).hasSize(2));
+        // one statement for the page's ISBNs and one projection statement for its rows
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findBooksByAuthor_PagesFromTheLinkTable() throws Exception {
+        Author prolific = persistAuthor("Prolific Author");
+        for (int i = 0; i < 5; i++) {
+            entityManager.find(Book.class, isbnKey(i)).getAuthors().add(prolific);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        CatalogPage<BookView> first = bookService.findBooksByAuthor(prolific.getId(), null, 3);
+        serialize(first);
+
+        assertThat(first.getItems()).extracting(BookView::isbn)
+                .containsExactly(IsbnCodec.format(isbnKey(0)), IsbnCodec.format(isbnKey(1)), IsbnCodec.format(isbnKey(2)));
+        assertThat(first.getItems()).allSatisfy(book -> assertThat(book.authors()).hasSize(3));
+        // one statement for the page's ISBNs from book_authors and one projection statement for its rows
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        CatalogPage<BookView> second = bookService.findBooksByAuthor(prolific.getId(), first.getNextCursor(), 3);
+        assertThat(second.getItems()).extracting(BookView::isbn)
+                .containsExactly(IsbnCodec.format(isbnKey(3)), IsbnCodec.format(isbnKey(4)));
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void findBooksByAuthor_UnknownAuthor() {
+        assertThrows(AuthorNotFoundException.class, () -> bookService.findBooksByAuthor(-1L, null, null));
+    }
+
+    @Test
+    void searchCatalog_ComposesSuppliedFiltersOnly() {
+        assertThat(isbns(bookService.searchCatalog(
+                new BookSearchCriteria("TITLE 1", null, "Fiction", 2010, 2015, null, null), null, null, null, false)))
+                .containsExactly(isbnKey(10), isbnKey(11), isbnKey(12), isbnKey(13), isbnKey(14));
+        assertThat(isbns(bookService.searchCatalog(
+                new BookSearchCriteria(null, "co author 1", null, null, null, null, 23.0), null, null, null, false)))
+                .containsExactly(isbnKey(1), isbnKey(10), isbnKey(11), isbnKey(12));
+        assertThat(bookService.searchCatalog(
+                new BookSearchCriteria(null, null, "Poetry", null, null, null, null), null, null, null, false).items())
+                .isEmpty();
+    }
+
+    @Test
+    void searchCatalog_SortsAndReadsOneRowPastThePage() throws Exception {
+        SearchPage<BookView> page = bookService.searchCatalog(
+                new BookSearchCriteria(null, "author", null, null, null, null, null), "price,desc", 1, 5, false);
+        serialize(page);
+
+        assertThat(isbns(page)).containsExactly(isbnKey(34), isbnKey(33), isbnKey(32), isbnKey(31), isbnKey(30));
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.totalCount()).isNull();
+        assertThat(page.items()).allSatisfy(book -> assertThat(book.authors()).hasSize(2));
+        // the page's ISBNs and the projection rows; no COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void searchCatalog_CountsOnlyWhenTheTotalIsUnknown() {
+        BookSearchCriteria all = new BookSearchCriteria(null, null, "Fiction", null, null, null, null);
+
+        assertThat(bookService.searchCatalog(all, null, 0, 5, true).totalCount()).isEqualTo(BOOK_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        statistics.clear();
+
+        SearchPage<BookView> last = bookService.searchCatalog(all, null, 7, 5, true);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.totalCount()).isEqualTo(BOOK_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addBook_WithKnownAuthors_DoesNotQueryAuthorsAgain() {
+        Author known = persistAuthor("Known Author");
+        known.setNameKey("known author");
+        AuthorDTO knownDTO = new AuthorDTO("Known  AUTHOR", known.getBirthday());
+        bookService.addBook(newBookDTO(IsbnCodec.format(isbnKey(1001)), knownDTO));
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        bookService.addBook(newBookDTO(IsbnCodec.format(isbnKey(1002)), knownDTO));
+        entityManager.flush();
+
+        // existence check, book insert and join row insert; the author comes from the name index
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+    }
+
+    @Test
+    void addBook_WithNewAuthors_UsesConstantRoundTrips() {
+        bookService.addBook(newBookDTO(IsbnCodec.format(isbnKey(1003)), newAuthors("Warmup", 1)));
+        entityManager.flush();
+        startNewAuthorIdBlock();
+        statistics.clear();
+
+        bookService.addBook(newBookDTO(IsbnCodec.format(isbnKey(1004)), newAuthors("Pair", 2)));
+        entityManager.flush();
+        long twoAuthors = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        bookService.addBook(newBookDTO(IsbnCodec.format(isbnKey(1005)), newAuthors("Crowd", 12)));
+        entityManager.flush();
+
+        // existence check, author lookup, author read back, book insert and join row batch; the
+        // author batch runs on the JDBC connection, outside Hibernate's statistics, and draws its
+        // ids from the block started above
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(twoAuthors).isLessThanOrEqualTo(5);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(entityManager.getEntityManager()
+                .createQuery("select count(a) from Author a where a.name like 'Crowd Author %'", Long.class)
+                .getSingleResult()).isEqualTo(12);
+    }
+
+    private static List<Long> isbns(SearchPage<BookView> page) {
+        return page.items().stream().map(book -> Long.parseLong(book.isbn())).toList();
+    }
+
+    private BookDTO newBookDTO(String isbn, AuthorDTO... authors) {
+        return new BookDTO(isbn, "Another Title", 2020, 20.0, "Fiction", List.of(authors));
+    }
+
+    private AuthorDTO[] newAuthors(String prefix, int count) {
+        AuthorDTO[] authors = new AuthorDTO[count];
+        for (int i = 0; i < count; i++) {
+            authors[i] = new AuthorDTO(prefix + " Author " + i, LocalDate.of(1980, 1, 1 + i));
+        }
+        return authors;
+    }
+
+    /**
+     * Returns a valid ISBN-13 key for the n-th test book.
+     */
+    private static long isbnKey(int n) {
+        long first12 = 978_000_000_000L + n;
+        int sum = 0;
+        long rest = first12;
+        for (int position = 0; position < 12; position++) {
+            int digit = (int) (rest % 10);
+            sum += position % 2 == 0 ? 3 * digit : digit;
+            rest /= 10;
+        }
+        return first12 * 10 + (10 - sum % 10) % 10;
+    }
+
+    /**
+     * Persists throwaway authors until one draws a new block of sequence ids. Rolled back tests
+     * do not return their ids, so without this it depends on the test order which of the
+     * measured inserts has to fetch the next block.
+     */
+    private void startNewAuthorIdBlock() {
+        for (int i = 0; i < 100; i++) {
+            statistics.clear();
+            persistAuthor("Id Block Author " + i);
+            if (statistics.getPrepareStatementCount() > 0) {
+                break;
+            }
+        }
+        entityManager.flush();
+    }
+
+    private Author persistAuthor(String name) {
+        Author author = new Author();
+        author.setName(name);
+        author.setBirthday(LocalDate.of(1970, 1, 1));
+        return entityManager.persist(author);
+    }
+
+    private void serialize(Object value) throws Exception {
+        objectMapper.writeValueAsString(value);
+    }
+}
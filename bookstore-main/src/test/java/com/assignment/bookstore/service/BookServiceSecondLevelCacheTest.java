@@ -0,0 +1,157 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.AuthorCache;
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.config.SecondLevelCacheConfig;
+import com.assignment.bookstore.entity.Author;
+import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.repository.AuthorRepository;
+import com.assignment.bookstore.repository.BookRepository;
+import com.assignment.bookstore.search.BookSearchIndex;
+import com.assignment.bookstore.search.CatalogFacetIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against committed transactions, as the second-level cache is only populated and
+ * invalidated on commit: repeated reads must be answered from the cache, and writes through
+ * {@link BookService} must never leave a stale entity or query result behind.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SecondLevelCacheConfig.class, BookService.class, AuthorService.class, AuthorCache.class, BookCache.class,
+        BookSearchIndex.class, CatalogFacetIndex.class, BookstoreProperties.class, ThreadPoolTaskScheduler.class})
+class BookServiceSecondLevelCacheTest {
+
+    private static final String FIRST_ISBN = "9780306406157";
+    private static final String SECOND_ISBN = "9780131103627";
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private AuthorDTO author;
+
+    @BeforeEach
+    void setUp(TestInfo testInfo) {
+        // AuthorCache outlives the rows deleted after each test, so every test gets its own author
+        author = new AuthorDTO("Author of " + testInfo.getDisplayName(), LocalDate.of(1970, 1, 1));
+        bookService.addBook(new BookDTO(FIRST_ISBN, "Cached Title One", 2020, 10.0, "Fiction", List.of(author)));
+        bookService.addBook(new BookDTO(SECOND_ISBN, "Cached Title Two", 2021, 12.0, "Fiction", List.of(author)));
+        // writes leave soft locks that refuse cache puts of the same version until they time out
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    void findBooks_RepeatedSearchIsAnsweredFromQueryCache() {
+        bookService.findBooks("cached title", null);
+        statistics.clear();
+
+        List<BookView> books = bookService.findBooks("cached title", null);
+
+        assertThat(books).extracting(BookView::isbn).containsExactly(SECOND_ISBN, FIRST_ISBN);
+        // the ISBN search comes from the query cache and the books from the ISBN cache
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateBook_InvalidatesCachedSearchResults() {
+        bookService.findBooks("cached title", null);
+
+        bookService.updateBook(FIRST_ISBN, new BookUpdateDTO("Renamed", 2020, 10.0, "Fiction", List.of(author)), null);
+        statistics.clear();
+
+        assertThat(bookService.findBooks("cached title", null)).extracting(BookView::isbn).containsExactly(SECOND_ISBN);
+        assertThat(bookService.findBooks("renamed", null)).singleElement()
+                .satisfies(book -> assertThat(book.version()).isEqualTo(1L));
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    void find_RepeatedLoadComesFromEntityAndCollectionRegions() {
+        loadAuthorNames(FIRST_ISBN);
+        statistics.clear();
+
+        List<String> authorNames = loadAuthorNames(FIRST_ISBN);
+
+        assertThat(authorNames).containsExactly(author.getName());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Book.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Book.AUTHORS_CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Author.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteBook_EvictsEntityAndCachedSearchResults() {
+        bookService.findBooks("cached title", null);
+        loadAuthorNames(FIRST_ISBN);
+
+        bookService.deleteBook(FIRST_ISBN, null);
+
+        assertThat(entityManager.find(Book.class, Long.valueOf(FIRST_ISBN))).isNull();
+        assertThat(bookService.findBooks("cached title", null)).extracting(BookView::isbn).containsExactly(SECOND_ISBN);
+    }
+
+    // a plain find in its own transaction: the WITH_AUTHORS graph on findById joins the authors in SQL instead
+    private List<String> loadAuthorNames(String isbn) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                entityManager.find(Book.class, Long.valueOf(isbn)).getAuthors().stream()
+                        .map(Author::getName)
+                        .toList());
+    }
+}
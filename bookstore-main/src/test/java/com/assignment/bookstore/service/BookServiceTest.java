@@ -1,36 +1,73 @@
 package com.assignment.bookstore.service;
 
+import com.assignment.bookstore.cache.BookCache;
+import com.assignment.bookstore.config.BookstoreProperties;
 import com.assignment.bookstore.entity.Author;
 import com.assignment.bookstore.entity.Book;
+import com.assignment.bookstore.event.BookChangedEvent;
 import com.assignment.bookstore.exception.EntityExistsException;
 import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.exception.PreconditionFailedException;
+import com.assignment.bookstore.helper.CatalogCursor;
 import com.assignment.bookstore.model.AuthorDTO;
+import com.assignment.bookstore.model.BookAuthorRow;
+import com.assignment.bookstore.model.BookFacetGroup;
 import com.assignment.bookstore.model.BookDTO;
+import com.assignment.bookstore.model.BookLookup;
 import com.assignment.bookstore.model.BookUpdateDTO;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogFacets;
+import com.assignment.bookstore.model.CatalogPage;
 import com.assignment.bookstore.repository.BookRepository;
+import com.assignment.bookstore.search.BookSearchIndex;
+import com.assignment.bookstore.search.CatalogFacetIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookServiceTest {
 
+    private static final String ISBN = "978-0-306-40615-7";
+    private static final long KEY = 9780306406157L;
+
     @Mock
     private BookRepository bookRepository;
 
     @Mock
     private AuthorService authorService;
 
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private CatalogFacetIndex catalogFacetIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private BookstoreProperties properties = new BookstoreProperties();
+
+    @Spy
+    private BookCache bookCache = new BookCache(new BookstoreProperties());
+
     @InjectMocks
     private BookService bookService;
 
@@ -45,7 +82,7 @@ class BookServiceTest {
         authorDTO.setName("Test Author");
 
         bookDTO = new BookDTO();
-        bookDTO.setIsbn("1234567890");
+        bookDTO.setIsbn(ISBN);
         bookDTO.setTitle("Test Book");
         bookDTO.setPrice(29.99);
         bookDTO.setYear(2025);
@@ -56,32 +93,85 @@ class BookServiceTest {
         author.setId(1L);
 
         book = new Book();
-        book.setIsbn("1234567890");
+        book.setIsbn(KEY);
         book.setTitle("Test Book");
         book.setPrice(29.99);
+        book.setVersion(3L);
         book.setAuthors(Set.of(author));
     }
 
     @Test
     void addBook_Success() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
         when(authorService.createAuthors(any())).thenReturn(Collections.singletonList(author));
         when(bookRepository.save(any(Book.class))).thenReturn(book);
 
-        Book result = bookService.addBook(bookDTO);
+        BookView result = bookService.addBook(bookDTO);
 
         assertThat(result).isNotNull();
-        assertThat(result.getIsbn()).isEqualTo(bookDTO.getIsbn());
+        assertThat(result.isbn()).isEqualTo("9780306406157");
+        assertThat(result.authors()).extracting("name").containsExactly("Test Author");
         verify(bookRepository).save(any(Book.class));
+        verify(eventPublisher).publishEvent(argThat((BookChangedEvent event) ->
+                event.before() == null && event.after().authorNames().equals(List.of("Test Author"))));
     }
 
     @Test
     void addBook_DuplicateIsbn_ThrowsException() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.of(book));
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
 
         assertThrows(EntityExistsException.class, () -> bookService.addBook(bookDTO));
     }
 
+    @Test
+    void addBook_Isbn10OfExistingBook_ThrowsException() {
+        bookDTO.setIsbn("0-306-40615-2");
+        when(bookRepository.findById(KEY)).thenReturn(Optional.of(book));
+
+        assertThrows(EntityExistsException.class, () -> bookService.addBook(bookDTO));
+    }
+
+    @Test
+    void findBookByIsbn_InvalidChecksum_ThrowsWithoutQuerying() {
+        assertThrows(InvalidInputException.class, () -> bookService.findBookByIsbn("978-0-306-40615-8"));
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void findBooksByIsbns_SplitsFoundAndMissingInRequestOrder() {
+        when(bookRepository.findViewRowsByIsbnIn(anyCollection())).thenReturn(List.of(row(KEY)));
+
+        // the ISBN-10 form addresses the same book and is looked up once
+        BookLookup result = bookService.findBooksByIsbns(List.of("978-0-000-00000-2", ISBN, "0-306-40615-2"));
+
+        assertThat(result.found()).extracting(BookView::isbn).containsExactly("9780306406157");
+        assertThat(result.missing()).containsExactly("9780000000002");
+        verify(bookRepository, times(1)).findViewRowsByIsbnIn(anyCollection());
+    }
+
+    @Test
+    void findBooksByIsbns_LoadsOnlyCacheMisses() {
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(9780000000002L))).thenReturn(List.of());
+        bookService.findBookByIsbn(ISBN);
+
+        BookLookup result = bookService.findBooksByIsbns(List.of(ISBN, "9780000000002"));
+
+        assertThat(result.found()).hasSize(1);
+        assertThat(result.missing()).containsExactly("9780000000002");
+        verify(bookRepository, times(1)).findViewRowsByIsbnIn(List.of(KEY));
+    }
+
+    @Test
+    void findBooksByIsbns_TooManyIsbns_ThrowsWithoutQuerying() {
+        properties.getCatalog().setMaxLookupSize(2);
+
+        assertThrows(InvalidInputException.class, () -> bookService.findBooksByIsbns(List.of(ISBN, ISBN, ISBN)));
+
+        verifyNoInteractions(bookRepository);
+    }
+
     @Test
     void updateBook_Success() {
         BookUpdateDTO updateDTO = new BookUpdateDTO();
@@ -89,67 +179,304 @@ class BookServiceTest {
         updateDTO.setPrice(39.99);
         updateDTO.setAuthors(Collections.singletonList(authorDTO));
 
-        when(bookRepository.findById(anyString())).thenReturn(Optional.of(book));
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
         when(authorService.createAuthors(any())).thenReturn(Collections.singletonList(author));
-        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
 
-        Book result = bookService.updateBook("1234567890", updateDTO);
+        BookView result = bookService.updateBook(ISBN, updateDTO, "\"3\"");
 
         assertThat(result).isNotNull();
-        verify(bookRepository).save(any(Book.class));
+        assertThat(result.version()).isEqualTo(3L);
+        verify(bookRepository).saveAndFlush(any(Book.class));
+        verify(eventPublisher).publishEvent(argThat((BookChangedEvent event) ->
+                event.before().title().equals("Test Book") && event.after().title().equals("Updated Title")));
     }
 
     @Test
     void findBookByIsbn_Success() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.of(book));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
 
-        Book result = bookService.findBookByIsbn("1234567890");
+        BookView result = bookService.findBookByIsbn(ISBN);
 
         assertThat(result).isNotNull();
-        assertThat(result.getIsbn()).isEqualTo("1234567890");
+        assertThat(result.isbn()).isEqualTo("9780306406157");
+        assertThat(result.authors()).extracting("name").containsExactly("Test Author");
     }
 
     @Test
     void findBookByIsbn_NotFound_ThrowsException() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(bookRepository.findViewRowsByIsbnIn(anyCollection())).thenReturn(List.of());
 
-        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn("1234567890"));
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn(ISBN));
+    }
+
+    @Test
+    void findBookByIsbn_ServedFromCacheOnRepeatedLookup() {
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+
+        BookView first = bookService.findBookByIsbn(ISBN);
+        BookView result = bookService.findBookByIsbn(ISBN);
+
+        assertThat(result).isSameAs(first);
+        verify(bookRepository, times(1)).findViewRowsByIsbnIn(List.of(KEY));
+    }
+
+    @Test
+    void findBookByIsbn_UnknownIsbnIsCachedAsMissing() {
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn(ISBN));
+        assertThrows(BookNotFoundException.class, () -> bookService.findBookByIsbn(ISBN));
+
+        verify(bookRepository, times(1)).findViewRowsByIsbnIn(List.of(KEY));
+    }
+
+    @Test
+    void updateBook_InvalidatesCachedEntry() {
+        BookUpdateDTO updateDTO = new BookUpdateDTO();
+        updateDTO.setTitle("Updated Title");
+        updateDTO.setAuthors(Collections.singletonList(authorDTO));
+        when(bookRepository.findById(KEY)).thenReturn(Optional.of(book));
+        when(authorService.createAuthors(any())).thenReturn(Collections.singletonList(author));
+        when(bookRepository.saveAndFlush(any(Book.class))).thenReturn(book);
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+        bookService.findBookByIsbn(ISBN);
+
+        bookService.updateBook(ISBN, updateDTO, null);
+        bookService.findBookByIsbn(ISBN);
+
+        verify(bookCache).invalidate(KEY);
+        // cache fill and the reload after invalidation
+        verify(bookRepository, times(2)).findViewRowsByIsbnIn(List.of(KEY));
+    }
+
+    @Test
+    void deleteBook_InvalidatesCachedEntry() {
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+
+        bookService.deleteBook(ISBN, null);
+
+        verify(bookCache).invalidate(KEY);
     }
 
     @Test
     void findBooks_Success() {
-        when(bookRepository.findByTitleContainingIgnoreCaseAndAuthorsNameContainingIgnoreCase(anyString(), anyString()))
-            .thenReturn(Collections.singletonList(book));
+        when(bookRepository.searchByTitleAndAuthor("%test%", "%author%"))
+            .thenReturn(Collections.singletonList(KEY));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
 
-        List<Book> results = bookService.findBooks("Test", "Author");
+        List<BookView> results = bookService.findBooks("Test", "Author");
 
         assertThat(results).hasSize(1);
-        assertThat(results.get(0).getTitle()).isEqualTo("Test Book");
+        assertThat(results.get(0).title()).isEqualTo("Test Book");
+    }
+
+    @Test
+    void findBooks_TitleOnly_DoesNotFilterByAuthor() {
+        when(bookRepository.searchByTitle("%test%")).thenReturn(Collections.singletonList(KEY));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+
+        List<BookView> results = bookService.findBooks(" Test ", null);
+
+        assertThat(results).extracting(BookView::isbn).containsExactly("9780306406157");
+        verify(bookRepository, never()).searchByTitleAndAuthor(anyString(), anyString());
+    }
+
+    @Test
+    void findBooks_AuthorOnly_DoesNotFilterByTitle() {
+        when(bookRepository.searchByAuthor("%author%")).thenReturn(Collections.singletonList(KEY));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+
+        List<BookView> results = bookService.findBooks("", "Author");
+
+        assertThat(results).extracting(BookView::isbn).containsExactly("9780306406157");
+    }
+
+    @Test
+    void findBooks_NoCriteria_ThrowsWithoutQuerying() {
+        BookNotFoundException exception = assertThrows(BookNotFoundException.class, () -> bookService.findBooks(null, " "));
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void findBooks_NoMatches_ReturnsEmptyListWhenConfigured() {
+        properties.getSearch().setNotFoundWhenEmpty(false);
+        when(bookRepository.searchByTitle("%missing%")).thenReturn(List.of());
+
+        assertThat(bookService.findBooks("missing", null)).isEmpty();
+    }
+
+    @Test
+    void findBooks_IndexReady_ReturnsHitsInRankOrder() {
+        List<Long> ranked = List.of(KEY, 9780000000002L);
+        when(bookSearchIndex.isReady()).thenReturn(true);
+        when(bookSearchIndex.search("Test", null)).thenReturn(ranked);
+        when(bookRepository.findViewRowsByIsbnIn(ranked)).thenReturn(List.of(row(9780000000002L), row(KEY)));
+
+        List<BookView> results = bookService.findBooks("Test", null);
+
+        assertThat(results).extracting(BookView::isbn).containsExactly("9780306406157", "9780000000002");
+        verify(bookRepository, never()).searchByTitle(anyString());
+    }
+
+    @Test
+    void findFacets_CountersReady_DoesNotQueryDatabase() {
+        CatalogFacets facets = new CatalogFacets(1, List.of(), List.of(), List.of());
+        when(catalogFacetIndex.isReady()).thenReturn(true);
+        when(catalogFacetIndex.facets()).thenReturn(facets);
+
+        assertThat(bookService.findFacets()).isSameAs(facets);
+        verify(bookRepository, never()).countFacetGroups();
+    }
+
+    @Test
+    void findFacets_CountersNotReady_GroupsInDatabase() {
+        List<BookFacetGroup> groups = List.of(new BookFacetGroup("Fiction", 2001, 12.5, 3L));
+        CatalogFacets facets = new CatalogFacets(3, List.of(), List.of(), List.of());
+        when(bookRepository.countFacetGroups()).thenReturn(groups);
+        when(catalogFacetIndex.summarize(groups)).thenReturn(facets);
+
+        assertThat(bookService.findFacets()).isSameAs(facets);
     }
 
     @Test
     void findAllBooks_Success() {
-        when(bookRepository.findAll()).thenReturn(Arrays.asList(book, book));
+        BookAuthorRow coAuthor = new BookAuthorRow(KEY, "Test Book", 2025, 29.99, null, 0L, 2L, "Co Author", null);
+        when(bookRepository.findAllViewRows()).thenReturn(List.of(row(KEY), coAuthor, row(9780000000019L)));
 
-        List<Book> results = bookService.findAllBooks();
+        List<BookView> results = bookService.findAllBooks();
 
         assertThat(results).hasSize(2);
+        assertThat(results.get(0).authors()).extracting("name").containsExactly("Test Author", "Co Author");
+    }
+
+    @Test
+    void findCatalogPage_FirstPage_ReturnsCursorWhenMoreRowsExist() {
+        when(bookRepository.findIsbnPage(Limit.of(3))).thenReturn(List.of(KEY, 9780000000019L, 9780000000026L));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY, 9780000000019L)))
+                .thenReturn(List.of(row(KEY), row(9780000000019L)));
+
+        CatalogPage<BookView> page = bookService.findCatalogPage(null, 2);
+
+        assertThat(page.getItems()).extracting(BookView::isbn).containsExactly("9780306406157", "9780000000019");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CatalogCursor.decode(page.getNextCursor())).isEqualTo(9780000000019L);
+    }
+
+    @Test
+    void findCatalogPage_TailDeletedBeforeLoad_CursorFollowsIsbnPage() {
+        when(bookRepository.findIsbnPage(Limit.of(3))).thenReturn(List.of(KEY, 9780000000019L, 9780000000026L));
+        // 9780000000019 was deleted between the ISBN page and loading its views
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY, 9780000000019L))).thenReturn(List.of(row(KEY)));
+
+        CatalogPage<BookView> page = bookService.findCatalogPage(null, 2);
+
+        assertThat(page.getItems()).extracting(BookView::isbn).containsExactly("9780306406157");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CatalogCursor.decode(page.getNextCursor())).isEqualTo(9780000000019L);
+    }
+
+    @Test
+    void findCatalogPage_WithCursor_ContinuesAfterLastKey() {
+        when(bookRepository.findIsbnPageAfter(KEY, Limit.of(21)))
+                .thenReturn(Collections.emptyList());
+
+        CatalogPage<BookView> page = bookService.findCatalogPage(CatalogCursor.encode(KEY), null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void findCatalogPage_LimitAboveMaximum_IsCapped() {
+        when(bookRepository.findIsbnPage(Limit.of(101))).thenReturn(Collections.singletonList(KEY));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of(row(KEY)));
+
+        CatalogPage<BookView> page = bookService.findCatalogPage(null, 5000);
+
+        assertThat(page.getItems()).hasSize(1);
+    }
+
+    @Test
+    void findBooksByAuthor_AuthorWithoutBooks_ReturnsEmptyPage() {
+        when(bookRepository.findIsbnPageByAuthor(7L, Limit.of(21))).thenReturn(Collections.emptyList());
+        when(authorService.existsById(7L)).thenReturn(true);
+
+        CatalogPage<BookView> page = bookService.findBooksByAuthor(7L, null, null);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+    }
+
+    @Test
+    void findBooksByAuthor_LaterPage_DoesNotCheckAuthor() {
+        when(bookRepository.findIsbnPageByAuthorAfter(7L, KEY, Limit.of(21))).thenReturn(Collections.emptyList());
+
+        CatalogPage<BookView> page = bookService.findBooksByAuthor(7L, CatalogCursor.encode(KEY), null);
+
+        assertThat(page.getItems()).isEmpty();
+        verify(authorService, never()).existsById(anyLong());
+    }
+
+    @Test
+    void findBooksByAuthor_WholePageDeletedBeforeLoad_KeepsPaging() {
+        when(bookRepository.findIsbnPageByAuthor(7L, Limit.of(2))).thenReturn(List.of(KEY, 9780000000019L));
+        when(bookRepository.findViewRowsByIsbnIn(List.of(KEY))).thenReturn(List.of());
+
+        CatalogPage<BookView> page = bookService.findBooksByAuthor(7L, null, 1);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CatalogCursor.decode(page.getNextCursor())).isEqualTo(KEY);
+    }
+
+    @Test
+    void findCatalogPage_NonPositiveLimit_ThrowsException() {
+        assertThrows(InvalidInputException.class, () -> bookService.findCatalogPage(null, 0));
     }
 
     @Test
     void deleteBook_Success() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.of(book));
-        doNothing().when(bookRepository).deleteById(anyString());
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        doNothing().when(bookRepository).deleteById(anyLong());
 
-        bookService.deleteBook("1234567890");
+        bookService.deleteBook(ISBN, "*");
 
-        verify(bookRepository).deleteById("1234567890");
+        verify(bookRepository).deleteById(KEY);
+    }
+
+    @Test
+    void updateBook_StaleIfMatch_ThrowsWithoutWriting() {
+        BookUpdateDTO updateDTO = new BookUpdateDTO();
+        updateDTO.setTitle("Updated Title");
+        when(bookRepository.findById(KEY)).thenReturn(Optional.of(book));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateBook(ISBN, updateDTO, "\"2\""));
+
+        verify(bookRepository, never()).saveAndFlush(any(Book.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteBook_StaleIfMatch_ThrowsWithoutDeleting() {
+        when(bookRepository.findById(KEY)).thenReturn(Optional.of(book));
+
+        assertThrows(PreconditionFailedException.class, () -> bookService.deleteBook(ISBN, "W/\"3\""));
+
+        verify(bookRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void deleteBook_NotFound_ThrowsException() {
-        when(bookRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        assertThrows(BookNotFoundException.class, () -> bookService.deleteBook(ISBN, null));
+    }
 
-        assertThrows(BookNotFoundException.class, () -> bookService.deleteBook("1234567890"));
+    private BookAuthorRow row(long isbn) {
+        return new BookAuthorRow(isbn, "Test Book", 2025, 29.99, null, 0L, 1L, "Test Author", null);
     }
 }
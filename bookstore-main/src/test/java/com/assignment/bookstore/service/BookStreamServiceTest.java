@@ -0,0 +1,84 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.exception.BookNotFoundException;
+import com.assignment.bookstore.exception.InvalidInputException;
+import com.assignment.bookstore.model.BookView;
+import com.assignment.bookstore.model.CatalogPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BookStreamServiceTest {
+
+    private BookService bookService;
+    private BookStreamService bookStreamService;
+
+    @BeforeEach
+    void setUp() {
+        bookService = mock(BookService.class);
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getCatalog().setMaxPageSize(2);
+        bookStreamService = new BookStreamService(bookService, new ObjectMapper().registerModule(new JavaTimeModule()),
+                properties);
+    }
+
+    @Test
+    void streamCatalog_WritesEveryPageAsNdjson() throws Exception {
+        when(bookService.findCatalogPage(null, 2)).thenReturn(new CatalogPage<>(List.of(book("1"), book("2")), "c1", true));
+        when(bookService.findCatalogPage("c1", 2)).thenReturn(new CatalogPage<>(List.of(book("3")), null, false));
+
+        String body = stream(bookStreamService.streamCatalog(null));
+
+        assertThat(body.lines()).hasSize(3);
+        assertThat(body.lines().toList().get(2)).contains("\"isbn\":\"3\"");
+        assertThat(body).endsWith("\n");
+    }
+
+    @Test
+    void streamCatalog_RejectsBadCursorBeforeStreaming() {
+        assertThrows(InvalidInputException.class, () -> bookStreamService.streamCatalog("not-a-cursor"));
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void streamSearch_LoadsResultsInPages() throws Exception {
+        when(bookService.findBookIsbns("title", null)).thenReturn(List.of(3L, 1L, 2L));
+        when(bookService.findBookViews(List.of(3L, 1L))).thenReturn(List.of(book("3"), book("1")));
+        when(bookService.findBookViews(List.of(2L))).thenReturn(List.of(book("2")));
+
+        String body = stream(bookStreamService.streamSearch("title", null));
+
+        assertThat(body.lines().map(line -> line.substring(0, 12))).containsExactly(
+                "{\"isbn\":\"3\",", "{\"isbn\":\"1\",", "{\"isbn\":\"2\",");
+    }
+
+    @Test
+    void streamSearch_NoMatches_ThrowsBeforeStreaming() {
+        when(bookService.findBookIsbns("missing", null)).thenReturn(List.of());
+
+        assertThrows(BookNotFoundException.class, () -> bookStreamService.streamSearch("missing", null));
+        verify(bookService, never()).findBookViews(any());
+    }
+
+    private static String stream(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static BookView book(String isbn) {
+        return new BookView(isbn, "Title " + isbn, 2020, 10.0, "Fiction", List.of(), 0L);
+    }
+}
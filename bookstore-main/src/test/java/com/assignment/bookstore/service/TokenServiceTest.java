@@ -0,0 +1,59 @@
+package com.assignment.bookstore.service;
+
+import com.assignment.bookstore.cache.TokenCache;
+import com.assignment.bookstore.config.BookstoreProperties;
+import com.assignment.bookstore.exception.UnauthorizedException;
+import com.assignment.bookstore.model.TokenResponse;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenServiceTest {
+
+    private TokenService tokenService;
+    private TokenCache tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        SecretKey key = new SecretKeySpec("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        BookstoreProperties properties = new BookstoreProperties();
+        properties.getAuth().setTokenTtl(Duration.ofMinutes(5));
+        tokenService = new TokenService(new NimbusJwtEncoder(new ImmutableSecret<>(key)), properties);
+        tokenCache = new TokenCache(key, properties);
+    }
+
+    @Test
+    void issueToken_CarriesNameRolesAndExpiry() {
+        UsernamePasswordAuthenticationToken login = UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+
+        TokenResponse response = tokenService.issueToken(login);
+        Jwt jwt = tokenCache.decode(response.accessToken());
+
+        assertThat(response.tokenType()).isEqualTo("Bearer");
+        assertThat(response.expiresIn()).isEqualTo(300);
+        assertThat(jwt.getSubject()).isEqualTo("admin");
+        assertThat(jwt.getClaimAsStringList(TokenService.ROLES_CLAIM)).containsExactly("ROLE_ADMIN");
+        assertThat(Duration.between(jwt.getIssuedAt(), jwt.getExpiresAt())).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void issueToken_RejectsNonPasswordAuthentication() {
+        TestingAuthenticationToken bearer = new TestingAuthenticationToken("admin", null, "ROLE_ADMIN");
+
+        assertThrows(UnauthorizedException.class, () -> tokenService.issueToken(bearer));
+    }
+}